@@ -1,13 +1,26 @@
 package io.github.aparx.bufig;
 
+import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.CharStreams;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.github.aparx.bufig.io.ConfigFiles;
+import io.github.aparx.bufig.io.ConfigIndex;
+import io.github.aparx.bufig.io.ConfigSaveQueue;
+import io.github.aparx.bufig.io.ConfigSnapshot;
+import io.github.aparx.bufig.io.ConfigWriteBatch;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.experimental.Accessors;
 import org.apache.commons.lang.ArrayUtils;
+import org.bukkit.configuration.Configuration;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -15,10 +28,17 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.dataflow.qual.Deterministic;
 
 import java.io.*;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.lang.ref.WeakReference;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 /**
  * @author aparx (Vinzent Z.)
@@ -27,9 +47,34 @@ import java.util.Objects;
  */
 public abstract class AbstractConfig extends AbstractConfigSection implements Config {
 
-  private final Map<ConfigPath, String[]> docMap = new HashMap<>();
+  private final DocTrie docTrie = new DocTrie();
 
-  private final Map<ConfigPath, ConfigSection> sectionMap = new HashMap<>();
+  /** The shared documentation looked up where this config has no documentation itself. */
+  private volatile @Nullable DocTemplate docTemplate;
+
+  /** Weakly held section handles, which rebind themselves lazily on a new generation. */
+  private final Map<ConfigPath, ConfigSection> sectionMap =
+      new MapMaker().weakValues().makeMap();
+
+  private final AtomicInteger generation = new AtomicInteger();
+
+  /** Counter of modifications, compared against the counter at the last load or save. */
+  private final AtomicLong modifications = new AtomicLong();
+
+  private volatile long syncedModifications;
+
+  /** State of the file as it was last written or found to be up-to-date. */
+  private volatile @Nullable FileState fileState;
+
+  /** The index of snapshots this config is restored from and recorded in, if any. */
+  @Getter
+  @Setter
+  private volatile @Nullable ConfigIndex index;
+
+  /** The queue of write-behind saves, or null if this config is saved synchronously. */
+  @Getter
+  @Setter
+  private volatile @Nullable ConfigSaveQueue saveQueue;
 
   @Getter(onMethod_ = {@Deterministic})
   private final @NonNull FileConfiguration output;
@@ -48,31 +93,479 @@ public abstract class AbstractConfig extends AbstractConfigSection implements Co
     this.output = output;
   }
 
+  /**
+   * Saves this config to its file. The file is only written if its contents differ from
+   * the serialized contents of this config.
+   * <p>The contents are written to a temporary file next to the target file, which then
+   * atomically replaces the target file, so that a failing save never leaves a partially
+   * written file behind.
+   * <p>If this config has a save queue, the contents are only serialized on the calling
+   * thread and written later on by the queue.
+   *
+   * @see #saveAsync()
+   */
   @Override
   public synchronized void save() {
-    createFileIfNotExisting();
-    try (FileWriter writer = new FileWriter(getFile())) {
-      writer.write(saveToString());
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+    ConfigSaveQueue queue = saveQueue;
+    if (queue != null) {
+      submitSave(queue::submit, queue::isPending);
+      return;
     }
+    writeNow();
+  }
+
+  private void writeNow() {
+    final long modifications = this.modifications.get();
+    byte[] bytes = saveToBytes();
+    HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+    File file = getFile();
+    boolean written = !isFileUpToDate(file, bytes, hash);
+    if (written) {
+      try {
+        ConfigFiles.writeAtomically(file.toPath(), bytes);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    fileState = new FileState(hash, file.length(), file.lastModified());
+    syncedModifications = modifications;
+    if (written) updateIndex(hash, bytes.length, fileState.lastModified, modifications);
+  }
+
+  /**
+   * Serializes this config on the calling thread and submits its contents to the save
+   * queue, if any, such that they are written in the background. Saves submitted within
+   * the window of the queue are coalesced into a single write of the latest contents.
+   * <p>If this config has no save queue, it is saved synchronously.
+   *
+   * @return the future completed once the contents have been written
+   * @see ConfigSaveQueue
+   */
+  @Override
+  @CanIgnoreReturnValue
+  public synchronized CompletableFuture<Void> saveAsync() {
+    ConfigSaveQueue queue = saveQueue;
+    if (queue == null) {
+      try {
+        writeNow();
+        return CompletableFuture.completedFuture(null);
+      } catch (RuntimeException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    return submitSave(queue::submit, queue::isPending);
+  }
+
+  /**
+   * Serializes this config on the calling thread and adds its contents to {@code batch},
+   * unless the file is already up-to-date, such that it is written once the batch is
+   * committed. If this config has a save queue, the contents are submitted to the queue
+   * instead, such that they are never overwritten by older contents still pending.
+   *
+   * @param batch the batch to add the contents of this config to
+   * @return the future completed once the contents have been written
+   * @see ConfigWriteBatch#commit()
+   */
+  @CanIgnoreReturnValue
+  public synchronized CompletableFuture<Void> saveTo(@NonNull ConfigWriteBatch batch) {
+    Preconditions.checkNotNull(batch, "Batch must not be null");
+    ConfigSaveQueue queue = saveQueue;
+    if (queue != null) return submitSave(queue::submit, queue::isPending);
+    return submitSave(batch::add, (target) -> false);
+  }
+
+  private CompletableFuture<Void> submitSave(
+      @NonNull BiFunction<Path, byte[], CompletableFuture<Void>> writer,
+      @NonNull Predicate<Path> pending) {
+    final long modifications = this.modifications.get();
+    byte[] bytes = saveToBytes();
+    HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+    File file = getFile();
+    Path target = file.toPath();
+    syncedModifications = modifications;
+    if (!pending.test(target) && isFileUpToDate(file, bytes, hash)) {
+      fileState = new FileState(hash, file.length(), file.lastModified());
+      return CompletableFuture.completedFuture(null);
+    }
+    // the written contents may be coalesced with later ones, thus the state is unknown
+    fileState = null;
+    updateIndex(hash, bytes.length, -1, modifications);
+    return writer.apply(target, bytes).whenComplete((ignored, throwable) -> {
+      if (throwable != null) markModified();
+    });
+  }
+
+  @Override
+  public synchronized boolean saveIfDirty() {
+    if (!isDirty() && getFile().exists()) return false;
+    save();
+    return true;
   }
 
   @Override
   public synchronized void load() {
     File file = getFile();
     if (!file.exists()) return;
-    try (BufferedReader reader = new BufferedReader(new FileReader(getFile()))) {
-      StringBuilder builder = new StringBuilder();
-      for (String line; (line = reader.readLine()) != null; )
-        builder.append(line).append(System.lineSeparator());
-      String contents = builder.toString();
-      loadFromString(contents);
+    if (loadFromIndex(file)) return;
+    try {
+      long lastModified = file.lastModified();
+      byte[] bytes = Files.readAllBytes(file.toPath());
+      loadFrom(new InputStreamReader(new ByteArrayInputStream(bytes), getCharset()));
+      syncedModifications = modifications.get();
+      HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+      fileState = new FileState(hash, bytes.length, lastModified);
+      updateIndex(hash, bytes.length, lastModified, syncedModifications);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Reads and parses the file of this config without modifying this config, such that
+   * loading can be split into parsing on a background thread and applying the parsed
+   * contents on the thread accessing this config (see {@link ParsedFile#apply()}).
+   * <p>The contents are parsed into a detached copy of this config, created using
+   * {@link #createDetached()}, and captured as a snapshot of it.
+   *
+   * @return the parsed file, or null if this config cannot be parsed detached, in which
+   * case it has to be loaded using {@link #load()}
+   * @throws IOException if the file cannot be read
+   */
+  public @Nullable ParsedFile parseFile() throws IOException {
+    AbstractConfig detached = createDetached();
+    if (detached == null) return null;
+    File file = getFile();
+    long lastModified = file.lastModified();
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    detached.getOutput().options().pathSeparator(getPathSeparator());
+    detached.setDocTemplate(docTemplate);
+    detached.loadFrom(new InputStreamReader(new ByteArrayInputStream(bytes), getCharset()));
+    ConfigSnapshot snapshot;
+    try {
+      snapshot = detached.createSnapshot();
+    } catch (IllegalArgumentException e) {
+      // contains values only restorable by parsing
+      return null;
+    }
+    HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+    return new ParsedFile(snapshot, new FileState(hash, bytes.length, lastModified));
+  }
+
+  /**
+   * Returns a new, empty config parsing contents the same way as this config, whose file
+   * is never read or written, or null if not supported. Subclasses changing how contents
+   * are parsed should override this accordingly.
+   *
+   * @return the detached config, or null if this config cannot be parsed detached
+   * @see #parseFile()
+   */
+  protected @Nullable AbstractConfig createDetached() {
+    return null;
+  }
+
+  /**
+   * Loads the contents read from {@code reader}, equivalent to {@code loadFromString}.
+   * Implementations may override this to process the contents while they are read.
+   *
+   * @param reader the reader to read the contents from
+   * @throws IOException if the reader fails
+   */
+  protected void loadFrom(@NonNull Reader reader) throws IOException {
+    loadFromString(CharStreams.toString(reader));
+  }
+
+  /**
+   * Creates a snapshot of the current value tree, documentation and header of this config.
+   *
+   * @return the snapshot of this config
+   * @throws IllegalArgumentException if this config contains values not supported by
+   *                                  snapshots, such as serializable objects
+   */
+  public synchronized @NonNull ConfigSnapshot createSnapshot() {
+    Map<ConfigPath, String[]> docs = new LinkedHashMap<>(docTrie.size());
+    forEachDocs(ConfigPath.of(), (path, lines) -> docs.put(path, lines.toArray(String[]::new)));
+    return new ConfigSnapshot(getOutput().options().header(), docs, toMap(getOutput()));
+  }
+
+  /**
+   * Replaces the value tree and header of this config with the ones of {@code snapshot},
+   * and adds its documentation where absent, equivalent to loading the contents the
+   * snapshot has been created from.
+   *
+   * @param snapshot the snapshot to restore
+   */
+  public synchronized void restore(@NonNull ConfigSnapshot snapshot) {
+    Preconditions.checkNotNull(snapshot, "Snapshot must not be null");
+    FileConfiguration output = getOutput();
+    try {
+      for (String key : output.getKeys(false))
+        output.set(key, null);
+      restoreValues(output, snapshot.getValues());
+      output.options().header(snapshot.getHeader());
+      snapshot.getDocs().forEach(this::setDocsIfAbsent);
+    } finally {
+      nextGeneration();
+      markModified();
+    }
+  }
+
+  /**
+   * Writes a snapshot of this config to {@code file} in binary form, which is read back
+   * without parsing using {@link #importSnapshot(Path)}.
+   *
+   * @param file the file to write
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if this config contains values not supported by
+   *                                  snapshots
+   */
+  public void exportSnapshot(@NonNull Path file) throws IOException {
+    createSnapshot().write(file);
+  }
+
+  /**
+   * Restores this config from a snapshot previously written using
+   * {@link #exportSnapshot(Path)}. The file is memory-mapped and decoded without parsing.
+   * As the contents of this config may now differ from its file, it is dirty afterwards.
+   *
+   * @param file the file to read
+   * @throws IOException if the file cannot be read or is not a valid snapshot
+   */
+  public void importSnapshot(@NonNull Path file) throws IOException {
+    restore(ConfigSnapshot.read(file));
+  }
+
+  private boolean loadFromIndex(@NonNull File file) {
+    ConfigIndex index = this.index;
+    if (index == null) return false;
+    ConfigIndex.Entry entry = index.find(getId(), file);
+    if (entry == null) return false;
+    try {
+      restore(entry.getSnapshot());
+    } catch (IOException | RuntimeException e) {
+      index.remove(getId());
+      return false;
+    }
+    syncedModifications = modifications.get();
+    fileState = new FileState(entry.getHash(), entry.getLength(), entry.getLastModified());
+    return true;
+  }
+
+  /**
+   * Records the state of the file in the index, if any, whose contents correspond to this
+   * config at {@code modifications}. The snapshot is only created once the index needs it,
+   * rather than on every save.
+   */
+  private void updateIndex(
+      @NonNull HashCode hash, long length, long lastModified, long modifications) {
+    ConfigIndex index = this.index;
+    if (index == null) return;
+    // the index must not keep this config from being collected
+    WeakReference<AbstractConfig> reference = new WeakReference<>(this);
+    index.put(getId(), hash, length, lastModified, () -> {
+      AbstractConfig config = reference.get();
+      return config != null ? config.createSnapshotIfUnmodified(modifications) : null;
+    });
+  }
+
+  /**
+   * Returns a snapshot of this config, or null if it has been modified since
+   * {@code modifications} or contains values only restorable by parsing.
+   */
+  private synchronized @Nullable ConfigSnapshot createSnapshotIfUnmodified(long modifications) {
+    if (this.modifications.get() != modifications) return null;
+    try {
+      ConfigSnapshot snapshot = createSnapshot();
+      // modified while the snapshot has been created on another thread
+      return this.modifications.get() == modifications ? snapshot : null;
+    } catch (IllegalArgumentException | ConcurrentModificationException e) {
+      return null;
+    }
+  }
+
+  private static Map<String, Object> toMap(@NonNull ConfigurationSection section) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (String key : section.getKeys(false)) {
+      Object value = section.get(key);
+      map.put(key, value instanceof ConfigurationSection
+          ? toMap((ConfigurationSection) value)
+          : value);
+    }
+    return map;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void restoreValues(
+      @NonNull ConfigurationSection section,
+      @NonNull Map<String, Object> values) {
+    values.forEach((key, value) -> {
+      if (value instanceof Map)
+        restoreValues(section.createSection(key), (Map<String, Object>) value);
+      else section.set(key, copyValue(value));
+    });
+  }
+
+  /** Copies lists and maps into mutable instances, like the ones of a parser. */
+  private static Object copyValue(Object value) {
+    if (value instanceof List) {
+      List<Object> list = new ArrayList<>(((List<?>) value).size());
+      for (Object element : (List<?>) value)
+        list.add(copyValue(element));
+      return list;
+    }
+    if (value instanceof Map) {
+      Map<Object, Object> map = new LinkedHashMap<>();
+      ((Map<?, ?>) value).forEach((k, v) -> map.put(k, copyValue(v)));
+      return map;
+    }
+    return value;
+  }
+
+  /**
+   * Returns true if the file of this config has been changed by anything other than this
+   * config since it was last loaded or saved.
+   * <p>The file is only read if its size or modification time differ from the last known
+   * state, in which case its contents are compared by hash. Unsaved modifications and
+   * pending write-behind saves take precedence, thus this returns false while this config
+   * is dirty or a write of it is pending.
+   *
+   * @return true if the file contains contents that have not been loaded
+   * @see #isFileConflicting()
+   */
+  public synchronized boolean isFileChanged() {
+    return !isDirty() && isFileChangedSinceSync(true);
+  }
+
+  /**
+   * Returns true if this config is dirty while its file has been changed by anything
+   * other than this config since it was last loaded or saved, in which case loading the
+   * file discards the unsaved modifications and saving discards the external changes.
+   * <p>This returns false while a write-behind save of this config is pending or if its
+   * last save has been written behind, as the contents of the file are unknown then.
+   *
+   * @return true if both this config and its file have been modified
+   */
+  public synchronized boolean isFileConflicting() {
+    return isDirty() && fileState != null && isFileChangedSinceSync(true);
+  }
+
+  /**
+   * Returns true if the file of this config differs from its state when this config was
+   * last loaded or saved, or if that state is unknown, such as after a write-behind save.
+   * <p>Unlike {@link #isFileChanged()}, the file is only compared against the recorded
+   * state and this config is never serialized, thus this may be called from any thread.
+   *
+   * @return true if the file may contain contents that have not been loaded
+   */
+  public boolean isFileStateChanged() {
+    return isFileChangedSinceSync(false);
+  }
+
+  private boolean isFileChangedSinceSync(boolean serialize) {
+    File file = getFile();
+    ConfigSaveQueue queue = saveQueue;
+    if (!file.exists() || (queue != null && queue.isPending(file.toPath())))
+      return false;
+    FileState state = fileState;
+    long length = file.length(), lastModified = file.lastModified();
+    if (state != null && state.length == length && state.lastModified == lastModified)
+      return false;
+    HashCode hash;
+    try {
+      hash = Hashing.murmur3_128().hashBytes(Files.readAllBytes(file.toPath()));
+    } catch (IOException e) {
+      return false;
+    }
+    if (state == null && !serialize) return true;
+    // the state is unknown after a write-behind save, which wrote the current contents
+    HashCode expected = state != null ? state.hash
+        : Hashing.murmur3_128().hashBytes(saveToBytes());
+    if (!expected.equals(hash)) return true;
+    fileState = new FileState(hash, length, lastModified);
+    return false;
+  }
+
+  /** Returns the charset used to decode and encode the file of this config. */
+  protected @NonNull Charset getCharset() {
+    return StandardCharsets.UTF_8;
+  }
+
+  /**
+   * Returns the contents of {@link #saveToString()} encoded using the charset of this
+   * config, being the bytes that are hashed and written to the file when saving.
+   * <p>Subclasses may override this to encode the contents without building a string.
+   *
+   * @return the encoded contents of this config
+   */
+  protected byte @NonNull [] saveToBytes() {
+    return saveToString().getBytes(getCharset());
+  }
+
+  /**
+   * Returns true if this config has been modified since it was last loaded from or saved
+   * to its file. Modifications are tracked through {@code set}, {@code setDocs},
+   * {@code setHeader} and {@code loadFromString}.
+   *
+   * @return true if this config has unsaved modifications
+   */
+  @Override
+  public boolean isDirty() {
+    return modifications.get() != syncedModifications;
+  }
+
+  /** Marks this config as modified, such that it is dirty until it is saved or loaded. */
+  protected void markModified() {
+    modifications.incrementAndGet();
+  }
+
+  @Override
+  public void setHeader(String @Nullable [] header) {
+    if (Arrays.equals(getHeader(), ArrayUtils.nullToEmpty(header))) return;
+    Config.super.setHeader(header);
+    markModified();
+  }
+
+  private boolean isFileUpToDate(@NonNull File file, byte[] bytes, @NonNull HashCode hash) {
+    if (!file.exists() || file.length() != bytes.length) return false;
+    FileState state = fileState;
+    if (state != null && state.length == bytes.length
+        && state.lastModified == file.lastModified())
+      return state.hash.equals(hash);
+    try {
+      return hash.equals(Hashing.murmur3_128().hashBytes(Files.readAllBytes(file.toPath())));
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void set(@NonNull String path, Object value, String... docs) {
+    boolean section = isSection(path);
+    if (section) nextGeneration();
+    // maps set as values are emitted like sections, thus their children may be documented
+    if (section || get(path) instanceof Map) {
+      // the subtree is discarded, thus its documentation would never be emitted again
+      ConfigPath parsed = ConfigPath.parse(path, getPathSeparator());
+      if (!(value instanceof ConfigurationSection) && !(value instanceof Map))
+        removeDescendantDocs(parsed);
+      else removeAbsentDocs(parsed, value);
+    }
+    super.set(path, value, docs);
+    markModified();
+  }
+
+  @Override
+  public int getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Advances the generation, such that all previously resolved sections are considered
+   * stale. This should be called whenever sections of the output are replaced.
+   */
+  protected void nextGeneration() {
+    generation.incrementAndGet();
+  }
+
   @CanIgnoreReturnValue
   @SneakyThrows(IOException.class)
   public boolean createFileIfNotExisting() {
@@ -86,7 +579,7 @@ public abstract class AbstractConfig extends AbstractConfigSection implements Co
 
   @Override
   public boolean hasDocs(@NonNull ConfigPath path) {
-    return docMap.containsKey(path);
+    return lookupDocs(path) != null;
   }
 
   @Override
@@ -96,7 +589,170 @@ public abstract class AbstractConfig extends AbstractConfigSection implements Co
 
   @Override
   public String @Nullable [] getDocs(@NonNull ConfigPath path) {
-    return (String[]) ArrayUtils.clone(docMap.get(path));
+    ImmutableList<String> docs = lookupDocs(path);
+    return docs != null ? docs.toArray(String[]::new) : null;
+  }
+
+  /**
+   * Returns a read-only view of the documentation of {@code path}, without copying it.
+   *
+   * @param path the path whose documentation to return
+   * @return the documentation lines, or null if {@code path} has no documentation
+   */
+  public @Nullable List<@NonNull String> getDocsView(@NonNull ConfigPath path) {
+    return lookupDocs(path);
+  }
+
+  /**
+   * Calls {@code action} with the documentation of {@code path} and of every path below
+   * it, in no particular order.
+   *
+   * @param path   the path whose subtree to iterate
+   * @param action the action accepting each path and a read-only view of its documentation
+   */
+  public void forEachDocs(
+      @NonNull ConfigPath path,
+      @NonNull BiConsumer<@NonNull ConfigPath, @NonNull List<@NonNull String>> action) {
+    Preconditions.checkNotNull(path, "Path must not be null");
+    Preconditions.checkNotNull(action, "Action must not be null");
+    docTrie.forEach(path, (documented, docs) -> {
+      if (!docs.isEmpty()) action.accept(documented, docs);
+    });
+    DocTemplate template = docTemplate;
+    if (template != null)
+      template.getTrie().forEach(path, (documented, docs) -> {
+        if (docTrie.get(documented) == null) action.accept(documented, docs);
+      });
+  }
+
+  /**
+   * Removes the documentation of {@code path} and of every path below it.
+   *
+   * @param path the path whose subtree to remove the documentation of
+   * @return the amount of paths whose documentation has been removed
+   */
+  @CanIgnoreReturnValue
+  public int removeDocs(@NonNull ConfigPath path) {
+    Preconditions.checkNotNull(path, "Path must not be null");
+    boolean documented = hasDocs(path);
+    int removed = removeDescendantDocs(path) + (documented ? 1 : 0);
+    putDocs(path, ImmutableList.of());
+    if (removed != 0) markModified();
+    return removed;
+  }
+
+  /**
+   * Removes the documentation of all paths strictly below {@code path}, masking the ones
+   * documented by the template.
+   *
+   * @return the amount of paths whose documentation has been removed
+   */
+  private int removeDescendantDocs(@NonNull ConfigPath path) {
+    DocTemplate template = docTemplate;
+    if (template == null) return docTrie.removeDescendants(path);
+    int[] removed = {0};
+    forEachDocs(path, (documented, docs) -> {
+      if (documented.length() != path.length()) ++removed[0];
+    });
+    docTrie.removeDescendants(path);
+    template.getTrie().forEach(path, (documented, docs) -> {
+      if (documented.length() != path.length()) docTrie.put(documented, ImmutableList.of());
+    });
+    return removed[0];
+  }
+
+  /**
+   * Removes the documentation of all paths strictly below {@code path}, which do not exist
+   * within {@code value} replacing the subtree of {@code path}.
+   */
+  private void removeAbsentDocs(@NonNull ConfigPath path, @NonNull Object value) {
+    List<ConfigPath> absent = new ArrayList<>();
+    forEachDocs(path, (documented, docs) -> {
+      if (documented.length() != path.length() && !containsPath(value, documented, path.length()))
+        absent.add(documented);
+    });
+    absent.forEach((documented) -> putDocs(documented, ImmutableList.of()));
+  }
+
+  /** Returns true if the segments of {@code path} from {@code offset} exist in {@code value}. */
+  private static boolean containsPath(Object value, @NonNull ConfigPath path, int offset) {
+    for (int i = offset, n = path.length(); i < n && value != null; ++i) {
+      String segment = path.get(i);
+      if (value instanceof ConfigurationSection) {
+        ConfigurationSection section = (ConfigurationSection) value;
+        Configuration root = section.getRoot();
+        value = root != null && segment.indexOf(root.options().pathSeparator()) == -1
+            ? section.get(segment, null)
+            : section.getValues(false).get(segment);
+      } else if (value instanceof Map) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        value = map.get(segment);
+        // keys that are not strings are converted by the output
+        if (value == null)
+          for (Map.Entry<?, ?> entry : map.entrySet())
+            if (segment.equals(String.valueOf(entry.getKey()))) value = entry.getValue();
+      } else return false;
+    }
+    return value != null;
+  }
+
+  /**
+   * Returns a new cursor, which looks up the documentation of paths it is moved along
+   * without allocating them. Intended for processors visiting every mapping.
+   *
+   * @return the new cursor, positioned at the root
+   */
+  public @NonNull DocCursor newDocCursor() {
+    return new DocCursor(this);
+  }
+
+  @NonNull DocTrie getDocTrie() {
+    return docTrie;
+  }
+
+  public @Nullable DocTemplate getDocTemplate() {
+    return docTemplate;
+  }
+
+  /**
+   * Sets the template of documentation, which is shared with other configs and looked up
+   * wherever this config has no documentation itself.
+   * <p>The documentation of this config remains the same: documentation equal to the one
+   * of the template is dropped, as it is no longer needed, while paths the template
+   * documents, but this config does not, are masked.
+   *
+   * @param template the new template, or null to remove the template
+   * @see DocTemplate
+   */
+  public synchronized void setDocTemplate(@Nullable DocTemplate template) {
+    DocTemplate previous = docTemplate;
+    if (template == previous) return;
+    ConfigPath root = ConfigPath.of();
+    if (previous != null)
+      previous.getTrie().forEach(root, (path, docs) -> {
+        if (docTrie.get(path) == null) docTrie.put(path, docs);
+      });
+    Set<ConfigPath> redundant = new HashSet<>();
+    docTrie.forEach(root, (path, docs) -> {
+      ImmutableList<String> base = template != null ? template.getTrie().get(path) : null;
+      if (docs.equals(base) || (docs.isEmpty() && base == null)) redundant.add(path);
+    });
+    redundant.forEach(docTrie::remove);
+    if (template != null)
+      template.getTrie().forEach(root, (path, docs) -> {
+        if (docTrie.get(path) == null && !redundant.contains(path))
+          docTrie.put(path, ImmutableList.of());
+      });
+    docTemplate = template;
+  }
+
+  /** Returns the documentation of this config at {@code path}, or else of the template. */
+  private @Nullable ImmutableList<String> lookupDocs(@NonNull ConfigPath path) {
+    ImmutableList<String> docs = docTrie.get(path);
+    // empty documentation masks the template
+    if (docs != null) return !docs.isEmpty() ? docs : null;
+    DocTemplate template = docTemplate;
+    return template != null ? template.getTrie().get(path) : null;
   }
 
   @Override
@@ -106,9 +762,25 @@ public abstract class AbstractConfig extends AbstractConfigSection implements Co
 
   @Override
   public void setDocs(@NonNull ConfigPath path, String... docs) {
-    String[] array = Arrays.stream(docs).filter(Objects::nonNull).toArray(String[]::new);
-    if (ArrayUtils.isEmpty(array)) docMap.remove(path);
-    else docMap.put(path, array);
+    putDocs(path, Arrays.stream(docs)
+        .filter(Objects::nonNull)
+        .collect(ImmutableList.toImmutableList()));
+  }
+
+  /**
+   * Sets the documentation of {@code path} to {@code docs}, which is only stored if it
+   * differs from the documentation of the template. Empty documentation is stored to mask
+   * the template.
+   */
+  void putDocs(@NonNull ConfigPath path, @NonNull ImmutableList<String> docs) {
+    DocTemplate template = docTemplate;
+    ImmutableList<String> base = template != null ? template.getTrie().get(path) : null;
+    ImmutableList<String> previous = docs.equals(base) || (docs.isEmpty() && base == null)
+        ? docTrie.remove(path)
+        : docTrie.put(path, docs);
+    if (!docs.equals(MoreObjects.firstNonNull(previous != null ? previous : base,
+        ImmutableList.of())))
+      markModified();
   }
 
   @Override
@@ -118,11 +790,19 @@ public abstract class AbstractConfig extends AbstractConfigSection implements Co
 
   @Override
   public ConfigSection getSection(@NonNull ConfigPath path) {
-    String stringPath = path.join(getPathSeparator());
-    ConfigurationSection section = getOutput().getConfigurationSection(stringPath);
-    if (section == null) sectionMap.remove(path);
-    Preconditions.checkState(section != null, "Path {0} is not a section", stringPath);
-    return sectionMap.computeIfAbsent(path, (ignored) -> createSubsection(section));
+    if (path.isEmpty()) return this;
+    ConfigSection handle = sectionMap.get(path);
+    if (handle != null) {
+      if (isAttached(handle, path)) return handle;
+      sectionMap.remove(path, handle);
+    }
+    ConfigurationSection section = getParentSection(getOutput(), path)
+        .getConfigurationSection(getLeaf(path));
+    Preconditions.checkState(section != null, "Path {0} is not a section", path);
+    ConfigSection parent = path.length() > 1
+        ? getSection(path.subpath(0, path.length() - 1))
+        : this;
+    return sectionMap.computeIfAbsent(path, (ignored) -> createSubsection(parent, section));
   }
 
   @Override
@@ -145,8 +825,57 @@ public abstract class AbstractConfig extends AbstractConfigSection implements Co
     return Objects.hash(getId(), getFile());
   }
 
+  /** @deprecated Use {@link #createSubsection(ConfigSection, ConfigurationSection)}. */
+  @Deprecated
   protected ConfigSection createSubsection(ConfigurationSection section) {
-    return new ConfigSubsection(this, section);
+    return createSubsection(this, section);
+  }
+
+  protected ConfigSection createSubsection(ConfigSection parent, ConfigurationSection section) {
+    return new ConfigSubsection(parent, section);
+  }
+
+  private boolean isAttached(@NonNull ConfigSection handle, @NonNull ConfigPath path) {
+    if (handle instanceof AbstractConfigSection)
+      return ((AbstractConfigSection) handle).getAttachedSection() != null;
+    return isSection(path);
+  }
+
+  /**
+   * Contents of the file of this config parsed by {@link #parseFile()}, which have not
+   * been applied to this config yet.
+   */
+  public final class ParsedFile {
+
+    @Getter
+    private final @NonNull ConfigSnapshot snapshot;
+
+    private final @NonNull FileState state;
+
+    private ParsedFile(@NonNull ConfigSnapshot snapshot, @NonNull FileState state) {
+      this.snapshot = snapshot;
+      this.state = state;
+    }
+
+    /**
+     * Replaces the contents of this config with the parsed ones, equivalent to loading
+     * the file as it was parsed. Unsaved modifications are discarded.
+     */
+    public void apply() {
+      synchronized (AbstractConfig.this) {
+        restore(snapshot);
+        syncedModifications = modifications.get();
+        fileState = state;
+        updateIndex(state.hash, state.length, state.lastModified, syncedModifications);
+      }
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class FileState {
+    private final @NonNull HashCode hash;
+    private final long length;
+    private final long lastModified;
   }
 
   protected static class ConfigSubsection extends AbstractConfigSection {
@@ -6,6 +6,7 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.Color;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.util.Vector;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -25,6 +26,9 @@ import java.util.function.Supplier;
 @Getter
 public abstract class AbstractConfigSection implements ConfigSection {
 
+  /** Empty section read from whenever the section of a value does not exist. */
+  private static final ConfigurationSection ABSENT_SECTION = new MemoryConfiguration();
+
   private final @NonNull ConfigPath path;
   private final @NonNull Config root;
   private final @Nullable ConfigSection parent;
@@ -32,6 +36,10 @@ public abstract class AbstractConfigSection implements ConfigSection {
   @Getter(AccessLevel.NONE)
   private @Nullable ConfigurationSection section;
 
+  /** The root's generation at which {@code section} was last bound. */
+  @Getter(AccessLevel.NONE)
+  private int generation;
+
   public AbstractConfigSection() {
     Preconditions.checkState(this instanceof Config, "Root must be a config");
     this.parent = null;
@@ -50,6 +58,7 @@ public abstract class AbstractConfigSection implements ConfigSection {
     this.section = section;
     this.path = parent.getPath().add(segment);
     this.root = parent.getRoot();
+    this.generation = root.getGeneration();
   }
 
   private Object visitValue(Object value) {
@@ -67,7 +76,32 @@ public abstract class AbstractConfigSection implements ConfigSection {
   public @NonNull ConfigurationSection getSection() {
     if (section == null && isRoot())
       return ((Config) this).getOutput();
-    return Objects.requireNonNull(section);
+    ConfigurationSection section = getAttachedSection();
+    Preconditions.checkState(section != null, "Section {0} no longer exists", path);
+    return section;
+  }
+
+  /**
+   * Returns the {@code ConfigurationSection} this section is bound to, as long as it is
+   * still attached to the output of the root.
+   * <p>Whenever the root's generation changed since the last binding (for example due to
+   * the output being reloaded), this section is bound again by walking its path from the
+   * root's output.
+   *
+   * @return the attached section, or null if there is no section at this section's path
+   * @see Config#getGeneration()
+   */
+  protected @Nullable ConfigurationSection getAttachedSection() {
+    if (section == null && isRoot())
+      return ((Config) this).getOutput();
+    final int generation = root.getGeneration();
+    // missing sections are resolved again, as they may be created without a new generation
+    if (section == null || generation != this.generation) {
+      ConfigurationSection section = getParentSection(root.getOutput(), path);
+      this.section = section.getConfigurationSection(getLeaf(path));
+      this.generation = generation;
+    }
+    return section;
   }
 
   @Override
@@ -86,14 +120,15 @@ public abstract class AbstractConfigSection implements ConfigSection {
 
   @Override
   public Object get(@NonNull ConfigPath path) {
-    if (isRoot())
-      return ((Config) this).getOutput().get(path.join(getPathSeparator()));
-    return getRoot().get(getPath().add(path));
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().get(getPath().add(path));
+    return getParentSection(section, path).get(getLeaf(path));
   }
 
   @Override
   public Object get(@NonNull String path) {
-    if (isRoot()) return ((Config) this).getOutput().get(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.get(path);
     return getRoot().get(getPath().parseAdd(path, getPathSeparator()));
   }
 
@@ -145,236 +180,488 @@ public abstract class AbstractConfigSection implements ConfigSection {
 
   @Override
   public boolean contains(@NonNull ConfigPath path) {
-    if (isRoot())
-      return ((Config) this).getOutput().contains(path.join(getPathSeparator()));
-    return getRoot().contains(getPath().add(path));
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().contains(getPath().add(path));
+    return getParentSection(section, path).contains(getLeaf(path));
   }
 
   @Override
   public boolean contains(@NonNull String path) {
-    Config root = getRoot();
-    if (this == root)
-      return ((Config) this).getOutput().contains(path);
-    return root.contains(getPath().parseAdd(path, getPathSeparator()));
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.contains(path);
+    return getRoot().contains(getPath().parseAdd(path, getPathSeparator()));
   }
 
   @Override
   public boolean isSection(@NonNull ConfigPath path) {
-    if (!isRoot())
-      return getRoot().isSection(getPath().add(path));
-    return ((Config) this).getOutput().isConfigurationSection(path.join(getPathSeparator()));
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isSection(getPath().add(path));
+    return getParentSection(section, path).isConfigurationSection(getLeaf(path));
   }
 
   @Override
   public boolean isSection(@NonNull String path) {
-    if (!isRoot())
-      return getRoot().isSection(getPath().parseAdd(path, getPathSeparator()));
-    return ((Config) this).getOutput().isConfigurationSection(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isConfigurationSection(path);
+    return getRoot().isSection(getPath().parseAdd(path, getPathSeparator()));
   }
 
   @Override
   public Set<String> getKeys(boolean deep) {
-    return getSection().getKeys(deep);
+    ConfigurationSection section = getAttachedSection();
+    return (section != null ? section : ABSENT_SECTION).getKeys(deep);
   }
 
   @Override
   public Map<String, Object> getValues(boolean deep) {
-    return getSection().getValues(deep);
+    ConfigurationSection section = getAttachedSection();
+    return (section != null ? section : ABSENT_SECTION).getValues(deep);
   }
 
   @Override
   public String getString(String path) {
-    if (isRoot()) return getSection().getString(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getString(path);
     return getRoot().getString(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public String getString(String path, String def) {
-    if (isRoot()) return getSection().getString(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getString(path, def);
     return getRoot().getString(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isString(String path) {
-    if (isRoot()) return getSection().isString(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isString(path);
     return getRoot().isString(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public int getInt(@NonNull String path) {
-    if (isRoot()) return getSection().getInt(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getInt(path);
     return getRoot().getInt(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public int getInt(@NonNull String path, int def) {
-    if (isRoot()) return getSection().getInt(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getInt(path, def);
     return getRoot().getInt(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isInt(String path) {
-    if (isRoot()) return getSection().isInt(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isInt(path);
     return getRoot().isInt(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public double getDouble(@NonNull String path) {
-    if (isRoot()) return getSection().getDouble(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getDouble(path);
     return getRoot().getDouble(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public double getDouble(@NonNull String path, double def) {
-    if (isRoot()) return getSection().getDouble(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getDouble(path, def);
     return getRoot().getDouble(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isDouble(String path) {
-    if (isRoot()) return getSection().isDouble(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isDouble(path);
     return getRoot().isDouble(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public long getLong(@NonNull String path) {
-    if (isRoot()) return getSection().getLong(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getLong(path);
     return getRoot().getLong(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public long getLong(@NonNull String path, long def) {
-    if (isRoot()) return getSection().getLong(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getLong(path, def);
     return getRoot().getLong(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isLong(String path) {
-    if (isRoot()) return getSection().isLong(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isLong(path);
     return getRoot().isLong(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public boolean getBoolean(String path) {
-    if (isRoot()) return getSection().getBoolean(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getBoolean(path);
     return getRoot().getBoolean(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public boolean getBoolean(String path, boolean def) {
-    if (isRoot()) return getSection().getBoolean(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getBoolean(path, def);
     return getRoot().getBoolean(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isBoolean(String path) {
-    if (isRoot()) return getSection().isBoolean(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isBoolean(path);
     return getRoot().isBoolean(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public List<?> getList(String path) {
-    if (isRoot()) return getSection().getList(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getList(path);
     return getRoot().getList(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public List<?> getList(String path, List<?> def) {
-    if (isRoot()) return getSection().getList(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getList(path, def);
     return getRoot().getList(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isList(String path) {
-    if (isRoot()) return getSection().isList(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isList(path);
     return getRoot().isList(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public List<Map<?, ?>> getMapList(String path) {
-    if (isRoot()) return getSection().getMapList(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getMapList(path);
     return getRoot().getMapList(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public Color getColor(String path) {
-    if (isRoot()) return getSection().getColor(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getColor(path);
     return getRoot().getColor(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public Color getColor(String path, Color def) {
-    if (isRoot()) return getSection().getColor(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getColor(path, def);
     return getRoot().getColor(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isColor(String path) {
-    if (isRoot()) return getSection().isColor(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isColor(path);
     return getRoot().isColor(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public ItemStack getItemStack(String path) {
-    if (isRoot()) return getSection().getItemStack(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getItemStack(path);
     return getRoot().getItemStack(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public ItemStack getItemStack(String path, ItemStack def) {
-    if (isRoot()) return getSection().getItemStack(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getItemStack(path, def);
     return getRoot().getItemStack(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isItemStack(String path) {
-    if (isRoot()) return getSection().isItemStack(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isItemStack(path);
     return getRoot().isItemStack(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public Vector getVector(String path) {
-    if (isRoot()) return getSection().getVector(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getVector(path);
     return getRoot().getVector(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
 
   @Override
   public Vector getVector(String path, Vector def) {
-    if (isRoot()) return getSection().getVector(path, def);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.getVector(path, def);
     return getRoot().getVector(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()), def);
   }
 
   @Override
   public boolean isVector(String path) {
-    if (isRoot()) return getSection().isVector(path);
+    ConfigurationSection section = getAttachedSection();
+    if (section != null) return section.isVector(path);
     return getRoot().isVector(ConfigPaths.parseConcatJoin(
         getPath(), path, getPathSeparator()));
   }
+
+  @Override
+  public String getString(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getString(getPath().add(path));
+    return getParentSection(section, path).getString(getLeaf(path));
+  }
+
+  @Override
+  public String getString(@NonNull ConfigPath path, String def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getString(getPath().add(path), def);
+    return getParentSection(section, path).getString(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isString(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isString(getPath().add(path));
+    return getParentSection(section, path).isString(getLeaf(path));
+  }
+
+  @Override
+  public int getInt(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getInt(getPath().add(path));
+    return getParentSection(section, path).getInt(getLeaf(path));
+  }
+
+  @Override
+  public int getInt(@NonNull ConfigPath path, int def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getInt(getPath().add(path), def);
+    return getParentSection(section, path).getInt(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isInt(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isInt(getPath().add(path));
+    return getParentSection(section, path).isInt(getLeaf(path));
+  }
+
+  @Override
+  public double getDouble(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getDouble(getPath().add(path));
+    return getParentSection(section, path).getDouble(getLeaf(path));
+  }
+
+  @Override
+  public double getDouble(@NonNull ConfigPath path, double def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getDouble(getPath().add(path), def);
+    return getParentSection(section, path).getDouble(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isDouble(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isDouble(getPath().add(path));
+    return getParentSection(section, path).isDouble(getLeaf(path));
+  }
+
+  @Override
+  public long getLong(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getLong(getPath().add(path));
+    return getParentSection(section, path).getLong(getLeaf(path));
+  }
+
+  @Override
+  public long getLong(@NonNull ConfigPath path, long def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getLong(getPath().add(path), def);
+    return getParentSection(section, path).getLong(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isLong(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isLong(getPath().add(path));
+    return getParentSection(section, path).isLong(getLeaf(path));
+  }
+
+  @Override
+  public boolean getBoolean(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getBoolean(getPath().add(path));
+    return getParentSection(section, path).getBoolean(getLeaf(path));
+  }
+
+  @Override
+  public boolean getBoolean(@NonNull ConfigPath path, boolean def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getBoolean(getPath().add(path), def);
+    return getParentSection(section, path).getBoolean(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isBoolean(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isBoolean(getPath().add(path));
+    return getParentSection(section, path).isBoolean(getLeaf(path));
+  }
+
+  @Override
+  public List<?> getList(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getList(getPath().add(path));
+    return getParentSection(section, path).getList(getLeaf(path));
+  }
+
+  @Override
+  public List<?> getList(@NonNull ConfigPath path, List<?> def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getList(getPath().add(path), def);
+    return getParentSection(section, path).getList(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isList(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isList(getPath().add(path));
+    return getParentSection(section, path).isList(getLeaf(path));
+  }
+
+  @Override
+  public List<Map<?, ?>> getMapList(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getMapList(getPath().add(path));
+    return getParentSection(section, path).getMapList(getLeaf(path));
+  }
+
+  @Override
+  public Color getColor(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getColor(getPath().add(path));
+    return getParentSection(section, path).getColor(getLeaf(path));
+  }
+
+  @Override
+  public Color getColor(@NonNull ConfigPath path, Color def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getColor(getPath().add(path), def);
+    return getParentSection(section, path).getColor(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isColor(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isColor(getPath().add(path));
+    return getParentSection(section, path).isColor(getLeaf(path));
+  }
+
+  @Override
+  public ItemStack getItemStack(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getItemStack(getPath().add(path));
+    return getParentSection(section, path).getItemStack(getLeaf(path));
+  }
+
+  @Override
+  public ItemStack getItemStack(@NonNull ConfigPath path, ItemStack def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getItemStack(getPath().add(path), def);
+    return getParentSection(section, path).getItemStack(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isItemStack(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isItemStack(getPath().add(path));
+    return getParentSection(section, path).isItemStack(getLeaf(path));
+  }
+
+  @Override
+  public Vector getVector(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getVector(getPath().add(path));
+    return getParentSection(section, path).getVector(getLeaf(path));
+  }
+
+  @Override
+  public Vector getVector(@NonNull ConfigPath path, Vector def) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().getVector(getPath().add(path), def);
+    return getParentSection(section, path).getVector(getLeaf(path), def);
+  }
+
+  @Override
+  public boolean isVector(@NonNull ConfigPath path) {
+    ConfigurationSection section = getAttachedSection();
+    if (section == null) return getRoot().isVector(getPath().add(path));
+    return getParentSection(section, path).isVector(getLeaf(path));
+  }
+
+  /**
+   * Returns the section that directly contains the value at {@code path}, by walking the
+   * sections from {@code section} segment by segment. If any of the sections along the
+   * way does not exist, an empty section is returned, so that retrievers fall back to
+   * their defaults.
+   *
+   * @param section the section {@code path} is relative to
+   * @param path    the path of the value
+   * @return the section containing the value, or an empty section if there is none
+   * @see #getLeaf(ConfigPath)
+   */
+  protected static @NonNull ConfigurationSection getParentSection(
+      @NonNull ConfigurationSection section, @NonNull ConfigPath path) {
+    for (int i = 0, n = path.length() - 1; i < n; ++i)
+      if ((section = section.getConfigurationSection(path.get(i))) == null)
+        return ABSENT_SECTION;
+    return section;
+  }
+
+  /**
+   * Returns the key of the value at {@code path} within the section returned by
+   * {@link #getParentSection(ConfigurationSection, ConfigPath)}.
+   */
+  protected static @NonNull String getLeaf(@NonNull ConfigPath path) {
+    return path.isEmpty() ? "" : path.last();
+  }
 }
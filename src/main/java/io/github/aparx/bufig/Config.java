@@ -1,5 +1,6 @@
 package io.github.aparx.bufig;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.CheckReturnValue;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
@@ -10,6 +11,7 @@ import org.checkerframework.dataflow.qual.Deterministic;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +30,27 @@ public interface Config extends ConfigSection {
 
   void save();
 
+  /**
+   * Saves this config in the background, if supported by the implementation, and
+   * synchronously otherwise.
+   *
+   * @return the future completed once this config has been written to its file
+   */
+  @CanIgnoreReturnValue
+  CompletableFuture<Void> saveAsync();
+
+  /**
+   * Saves this config only if it has been modified since it was last loaded or saved, or
+   * if its file does not exist yet.
+   *
+   * @return true if this config has been saved
+   * @see #isDirty()
+   */
+  @CanIgnoreReturnValue
+  boolean saveIfDirty();
+
+  boolean isDirty();
+
   @CheckReturnValue
   String saveToString();
 
@@ -35,6 +58,17 @@ public interface Config extends ConfigSection {
 
   void loadFromString(String contents);
 
+  /**
+   * Returns the current generation of this config's section tree.
+   * <p>The generation changes whenever sections of the output may have been replaced or
+   * removed, such that previously resolved {@code ConfigurationSection} instances may no
+   * longer be attached to the output.
+   *
+   * @return the current generation
+   * @see ConfigKey
+   */
+  int getGeneration();
+
   default @Nullable String @Nullable [] getHeader() {
     String header = options().header();
     if (StringUtils.isEmpty(header))
@@ -0,0 +1,215 @@
+package io.github.aparx.bufig;
+
+import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.CheckReturnValue;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Color;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.Vector;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+
+/**
+ * A precompiled, typed handle to a value at a fixed location within a configuration.
+ * <p>A key resolves its path and codec once, binding itself to the
+ * {@code ConfigurationSection} that directly contains the value. Subsequent reads go
+ * straight to that bound section using the last segment of the path, and thus neither
+ * parse, concatenate nor join any paths.
+ * <p>The binding is validated against the generation of the root (see
+ * {@link Config#getGeneration()}), which changes whenever sections may have been
+ * replaced, for example through {@code set} or {@code loadFromString}. A stale binding is
+ * resolved again lazily on the next access.
+ *
+ * @param <T> the type of value read through this key
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-27 14:05
+ * @see ConfigSection#createKey(ConfigPath, Codec)
+ * @see Codec
+ * @since 1.0
+ */
+@Getter
+public final class ConfigKey<T> {
+
+  /** Empty section read from whenever the section of a value does not exist. */
+  private static final ConfigurationSection ABSENT_SECTION = new MemoryConfiguration();
+
+  /** The section this key was created through, used to determine the root. */
+  private final @NonNull ConfigSection owner;
+
+  /** The non-empty path of the value, relative to the root. */
+  private final @NonNull ConfigPath path;
+
+  private final @NonNull Codec<T> codec;
+
+  /** The last segment of {@code path}, being the key within the bound section. */
+  private final @NonNull String key;
+
+  @Getter(AccessLevel.NONE)
+  private volatile @Nullable Binding binding;
+
+  private ConfigKey(
+      @NonNull ConfigSection owner,
+      @NonNull ConfigPath path,
+      @NonNull Codec<T> codec) {
+    Preconditions.checkNotNull(owner, "Owner must not be null");
+    Preconditions.checkNotNull(path, "Path must not be null");
+    Preconditions.checkNotNull(codec, "Codec must not be null");
+    Preconditions.checkArgument(!path.isEmpty(), "Path must not be empty");
+    this.owner = owner;
+    this.path = path;
+    this.codec = codec;
+    this.key = path.last();
+  }
+
+  /**
+   * Creates a new key of the value at {@code path}, where {@code path} is relative to the
+   * root of {@code owner}.
+   *
+   * @param owner the section through which the root is resolved
+   * @param path  the path relative to the root of {@code owner}
+   * @param codec the codec used to read and test the value
+   * @param <T>   the type of value
+   * @return the new key
+   */
+  public static <T> ConfigKey<T> of(
+      @NonNull ConfigSection owner,
+      @NonNull ConfigPath path,
+      @NonNull Codec<T> codec) {
+    return new ConfigKey<>(owner, path, codec);
+  }
+
+  public @Nullable T get() {
+    return get(null);
+  }
+
+  public T get(T def) {
+    ConfigurationSection section = resolve();
+    return codec.read(section != null ? section : ABSENT_SECTION, key, def);
+  }
+
+  public boolean isPresent() {
+    ConfigurationSection section = resolve();
+    return section != null && codec.test(section, key);
+  }
+
+  public void set(T value, String... docs) {
+    owner.getRoot().set(path, value, docs);
+  }
+
+  /** Discards the current binding, so that the next access resolves the path again. */
+  public void invalidate() {
+    binding = null;
+  }
+
+  private @Nullable ConfigurationSection resolve() {
+    Config root = owner.getRoot();
+    final int generation = root.getGeneration();
+    Binding binding = this.binding;
+    if (binding != null && binding.root == root && binding.generation == generation)
+      return binding.section;
+    ConfigurationSection section = root.getOutput();
+    for (int i = 0, n = path.length() - 1; i < n && section != null; ++i)
+      section = section.getConfigurationSection(path.get(i));
+    // missing sections are not bound, as they may be created without a new generation
+    this.binding = section != null ? new Binding(root, section, generation) : null;
+    return section;
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigKey{" +
+        "path=" + path +
+        ", codec=" + codec +
+        '}';
+  }
+
+  @RequiredArgsConstructor
+  private static final class Binding {
+    private final @NonNull Config root;
+    private final @NonNull ConfigurationSection section;
+    private final int generation;
+  }
+
+  /**
+   * Reads and tests values of a specific type directly within a section.
+   *
+   * @param <T> the type of value
+   */
+  @CheckReturnValue
+  public interface Codec<T> {
+
+    Codec<Object> OBJECT = of(ConfigurationSection::get, ConfigurationSection::contains);
+
+    Codec<String> STRING = of(ConfigurationSection::getString, ConfigurationSection::isString);
+
+    Codec<Integer> INT = of((section, key, def) -> def != null
+        ? section.getInt(key, def)
+        : section.getInt(key), ConfigurationSection::isInt);
+
+    Codec<Long> LONG = of((section, key, def) -> def != null
+        ? section.getLong(key, def)
+        : section.getLong(key), ConfigurationSection::isLong);
+
+    Codec<Double> DOUBLE = of((section, key, def) -> def != null
+        ? section.getDouble(key, def)
+        : section.getDouble(key), ConfigurationSection::isDouble);
+
+    Codec<Boolean> BOOLEAN = of((section, key, def) -> def != null
+        ? section.getBoolean(key, def)
+        : section.getBoolean(key), ConfigurationSection::isBoolean);
+
+    Codec<List<?>> LIST = of(ConfigurationSection::getList, ConfigurationSection::isList);
+
+    Codec<Color> COLOR = of(ConfigurationSection::getColor, ConfigurationSection::isColor);
+
+    Codec<ItemStack> ITEM_STACK =
+        of(ConfigurationSection::getItemStack, ConfigurationSection::isItemStack);
+
+    Codec<Vector> VECTOR = of(ConfigurationSection::getVector, ConfigurationSection::isVector);
+
+    T read(@NonNull ConfigurationSection section, @NonNull String key, T def);
+
+    boolean test(@NonNull ConfigurationSection section, @NonNull String key);
+
+    static <T> Codec<T> of(@NonNull Reader<T> reader, @NonNull Tester tester) {
+      Preconditions.checkNotNull(reader, "Reader must not be null");
+      Preconditions.checkNotNull(tester, "Tester must not be null");
+      return new Codec<>() {
+        @Override
+        public T read(@NonNull ConfigurationSection section, @NonNull String key, T def) {
+          return reader.read(section, key, def);
+        }
+
+        @Override
+        public boolean test(@NonNull ConfigurationSection section, @NonNull String key) {
+          return tester.test(section, key);
+        }
+      };
+    }
+
+    static <T> Codec<T> ofType(@NonNull Class<T> type) {
+      Preconditions.checkNotNull(type, "Type must not be null");
+      return of((section, key, def) -> {
+        Object value = section.get(key, def);
+        return type.isInstance(value) ? type.cast(value) : def;
+      }, (section, key) -> type.isInstance(section.get(key)));
+    }
+
+    @FunctionalInterface
+    interface Reader<T> {
+      T read(@NonNull ConfigurationSection section, @NonNull String key, T def);
+    }
+
+    @FunctionalInterface
+    interface Tester {
+      boolean test(@NonNull ConfigurationSection section, @NonNull String key);
+    }
+  }
+
+}
@@ -8,11 +8,11 @@ import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Objects;
-import java.util.Vector;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -25,6 +25,10 @@ import java.util.stream.Stream;
  * <p>A string path can be parsed into a {@code ConfigPath} through the
  * {@link #parse(String, char)} method, or {@link #parseAdd(String, char)} to add a string
  * path to a current path object.
+ * <p>Paths are persistent: segments are stored in immutable chunks that are linked to
+ * their parent chunk, and a path is a view onto a range of such a chain. Adding to a path
+ * thus reuses the path as the parent of the added segments and a subpath is a view of the
+ * same chain, both without copying the existing segments.
  *
  * @author aparx (Vinzent Z.)
  * @version 2023-11-20 14:43
@@ -32,6 +36,7 @@ import java.util.stream.Stream;
  * @see #parseAdd(String, char)
  * @see #join(char)
  * @see #isValidSegment(String)
+ * @see ConfigPathPool
  * @since 1.0-SNAPSHOT
  */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -39,9 +44,24 @@ public final class ConfigPath implements Iterable<@NonNull String> {
 
   public static final char DEFAULT_SEPARATOR = '.';
 
-  private static final ConfigPath EMPTY = new ConfigPath(ArrayUtils.EMPTY_STRING_ARRAY);
+  private static final ConfigPath EMPTY = new ConfigPath(null, 0, 0);
 
-  private final @NonNull String @NonNull [] segments;
+  /** The last chunk of the chain this path is a view of, null if this path is empty. */
+  private final @Nullable Chunk tail;
+
+  /** The amount of leading segments of the chain that are not part of this path. */
+  private final @NonNegative int offset;
+
+  private final @NonNegative int length;
+
+  /** Cached hash code, lazily computed (zero until first computed). */
+  private int hash;
+
+  /** Lazily materialized segments of this path, never exposed or mutated once set. */
+  private volatile String[] segments;
+
+  /** Memoized joined forms of this path, one node per separator joined with so far. */
+  private JoinedForm joined;
 
   public static boolean isValidSegment(String segment) {
     return StringUtils.isNotBlank(segment);
@@ -52,10 +72,9 @@ public final class ConfigPath implements Iterable<@NonNull String> {
       return EMPTY;
     if (segments.length == 1)
       return of(segments[0]);
-    String[] array = Arrays.stream(segments)
+    return ofOwned(Arrays.stream(segments)
         .filter(ConfigPath::isValidSegment)
-        .toArray(String[]::new);
-    return ArrayUtils.isEmpty(array) ? EMPTY : new ConfigPath(array);
+        .toArray(String[]::new));
   }
 
   public static ConfigPath of(String segment, String... successors) {
@@ -64,13 +83,21 @@ public final class ConfigPath implements Iterable<@NonNull String> {
 
   public static ConfigPath of(String segment) {
     if (!isValidSegment(segment)) return EMPTY;
-    return new ConfigPath(new String[]{segment});
+    return ofOwned(new String[]{segment});
   }
 
   public static ConfigPath of() {
     return EMPTY;
   }
 
+  /** Creates a path from valid {@code segments}, that no one else is referencing. */
+  private static ConfigPath ofOwned(@NonNull String @NonNull [] segments) {
+    if (segments.length == 0) return EMPTY;
+    ConfigPath path = new ConfigPath(new Chunk(null, segments), 0, segments.length);
+    path.segments = segments;
+    return path;
+  }
+
   /**
    * Parses given {@code path} string into a path object by splitting it up into segments
    * using the given {@code pathSeparator} as the delimiter. Any blank segment is ignored.
@@ -78,28 +105,63 @@ public final class ConfigPath implements Iterable<@NonNull String> {
    * @param path          the string path to parse
    * @param pathSeparator the path separator, used to split given {@code path}
    * @return the path object, which contains non-null non-blank segments in order of split
+   * @see #parse(CharSequence, char)
    * @see #of(String[])
    * @see #isValidSegment(String)
-   * @see String#split(String)
    */
   public static ConfigPath parse(String path, char pathSeparator) {
     if (path.isEmpty())
       return EMPTY;
-    int index = path.indexOf(pathSeparator);
-    if (index == -1)
+    if (path.indexOf(pathSeparator) == -1)
       return of(path);
-    Vector<String> vector = new Vector<>();
-    do {
-      String segment = path.substring(0, index);
-      if (isValidSegment(segment)) vector.add(segment);
-      path = path.substring(1 + index);
-    } while ((index = path.indexOf(pathSeparator)) != -1);
-    if (isValidSegment(path)) vector.add(path);
-    else if (vector.isEmpty()) return EMPTY;
-    //noinspection ToArrayCallWithZeroLengthArrayArgument
-    return new ConfigPath(vector.toArray(new String[vector.size()]));
+    return parse((CharSequence) path, pathSeparator);
+  }
+
+  /**
+   * Parses given {@code path} sequence into a path object by splitting it up into segments
+   * using the given {@code pathSeparator} as the delimiter. Any blank segment is ignored.
+   * <p>The sequence is scanned without any intermediate copies of the input: the valid
+   * segments are counted first, so that only the resulting segment array and the segments
+   * themselves are allocated.
+   *
+   * @param path          the character sequence to parse
+   * @param pathSeparator the path separator, used to split given {@code path}
+   * @return the path object, which contains non-null non-blank segments in order of split
+   * @see #parse(String, char)
+   * @see #isValidSegment(String)
+   */
+  public static ConfigPath parse(@NonNull CharSequence path, char pathSeparator) {
+    final int n = path.length();
+    int count = 0;
+    for (int start = 0, end; start <= n; start = 1 + end) {
+      end = indexOf(path, pathSeparator, start);
+      if (!isBlank(path, start, end)) ++count;
+    }
+    if (count == 0)
+      return EMPTY;
+    String[] segments = new String[count];
+    for (int start = 0, end, i = 0; i < count; start = 1 + end) {
+      end = indexOf(path, pathSeparator, start);
+      if (!isBlank(path, start, end))
+        segments[i++] = path.subSequence(start, end).toString();
+    }
+    return ofOwned(segments);
   }
 
+  /** Returns the index of {@code ch} at or after {@code from}, or the sequence's length. */
+  private static int indexOf(CharSequence sequence, char ch, int from) {
+    final int n = sequence.length();
+    for (int i = from; i < n; ++i)
+      if (sequence.charAt(i) == ch) return i;
+    return n;
+  }
+
+  /** Range equivalent of {@code StringUtils.isBlank} used by {@link #isValidSegment}. */
+  private static boolean isBlank(CharSequence sequence, int start, int end) {
+    for (int i = start; i < end; ++i)
+      if (!Character.isWhitespace(sequence.charAt(i))) return false;
+    return true;
+  }
 
   /** @deprecated Use ConfigPaths#isEmpty instead. */
   @Deprecated(forRemoval = true)
@@ -114,11 +176,11 @@ public final class ConfigPath implements Iterable<@NonNull String> {
   }
 
   public int length() {
-    return segments.length;
+    return length;
   }
 
   public boolean isEmpty() {
-    return segments.length == 0;
+    return length == 0;
   }
 
   /**
@@ -132,13 +194,17 @@ public final class ConfigPath implements Iterable<@NonNull String> {
    * @see #parseAdd(String, char)
    */
   public String join(char pathSeparator) {
-    final int n = length();
+    for (JoinedForm form = joined; form != null; form = form.next)
+      if (form.separator == pathSeparator) return form.value;
+    final String[] segments = segments();
     StringBuilder builder = new StringBuilder();
-    for (int i = 0; i < n; ++i) {
+    for (int i = 0; i < segments.length; ++i) {
       if (i != 0) builder.append(pathSeparator);
       builder.append(Objects.requireNonNull(segments[i]));
     }
-    return builder.toString();
+    String value = builder.toString();
+    joined = new JoinedForm(pathSeparator, value, joined);
+    return value;
   }
 
   public String join() {
@@ -155,38 +221,48 @@ public final class ConfigPath implements Iterable<@NonNull String> {
 
   public @NonNull String get(@NonNegative int index) {
     Preconditions.checkElementIndex(index, length());
-    return Objects.requireNonNull(segments[index]);
+    String[] segments = this.segments;
+    if (segments != null)
+      return Objects.requireNonNull(segments[index]);
+    final int absolute = offset + index;
+    Chunk chunk = Objects.requireNonNull(tail);
+    while (chunk.start() > absolute)
+      chunk = Objects.requireNonNull(chunk.parent);
+    return Objects.requireNonNull(chunk.segments[absolute - chunk.start()]);
   }
 
   @CheckReturnValue
   public @NonNull ConfigPath set(@NonNegative int index, String segment) {
     Preconditions.checkElementIndex(index, length());
     if (!isValidSegment(segment))
-      return new ConfigPath((String[]) ArrayUtils.remove(segments, index));
+      return ofOwned((String[]) ArrayUtils.remove(segments(), index));
     @NonNull String[] array = toArray();
     array[index] = segment;
-    return new ConfigPath(array);
+    return ofOwned(array);
   }
 
   @CheckReturnValue
   public @NonNull ConfigPath add(@NonNull ConfigPath other) {
     if (other.isEmpty()) return this;
     if (isEmpty()) return other;
-    return new ConfigPath((String[]) ArrayUtils.addAll(segments, other.segments));
+    return append(other.segments());
   }
 
   @CheckReturnValue
   public @NonNull ConfigPath add(String @NonNull [] other) {
     if (ArrayUtils.isEmpty(other)) return this;
     if (isEmpty()) return of(other);
-    return of((String[]) ArrayUtils.addAll(segments, other));
+    String[] array = Arrays.stream(other)
+        .filter(ConfigPath::isValidSegment)
+        .toArray(String[]::new);
+    return array.length != 0 ? append(array) : this;
   }
 
   @CheckReturnValue
   public @NonNull ConfigPath add(String segment) {
     if (isEmpty()) return of(segment);
     if (!isValidSegment(segment)) return this;
-    return new ConfigPath((String[]) ArrayUtils.add(segments, segment));
+    return append(new String[]{segment});
   }
 
   @CheckReturnValue
@@ -202,8 +278,15 @@ public final class ConfigPath implements Iterable<@NonNull String> {
         "startInclusiveIndex must be less or equal to stopExclusiveIndex");
     if (startInclusiveIndex == stopExclusiveIndex)
       return EMPTY;
-    return new ConfigPath(Arrays.copyOfRange(segments, startInclusiveIndex,
-        stopExclusiveIndex));
+    if (startInclusiveIndex == 0 && stopExclusiveIndex == length())
+      return this;
+    // drop chunks that lie entirely behind the view, so they can be collected
+    final int end = offset + stopExclusiveIndex;
+    Chunk chunk = Objects.requireNonNull(tail);
+    while (chunk.parent != null && chunk.parent.end() >= end)
+      chunk = chunk.parent;
+    return new ConfigPath(chunk, offset + startInclusiveIndex,
+        stopExclusiveIndex - startInclusiveIndex);
   }
 
   public ConfigPath subpath(int startInclusiveIndex) {
@@ -211,33 +294,35 @@ public final class ConfigPath implements Iterable<@NonNull String> {
   }
 
   public @NonNull Stream<@NonNull String> stream() {
-    return Arrays.stream(segments);
+    return Arrays.stream(segments());
   }
 
   public @NonNull String @NonNull [] toArray() {
-    return (String[]) ArrayUtils.clone(segments);
+    return (String[]) ArrayUtils.clone(segments());
   }
 
   @Override
   public @NonNull Iterator<@NonNull String> iterator() {
     return new Iterator<>() {
+      final String[] segments = segments();
       int cursor = 0;
 
       @Override
       public boolean hasNext() {
-        return cursor < length();
+        return cursor < segments.length;
       }
 
       @Override
       public @NonNull String next() {
-        return get(cursor++);
+        Preconditions.checkElementIndex(cursor, segments.length);
+        return segments[cursor++];
       }
     };
   }
 
   @Override
   public String toString() {
-    return "ConfigPath{" + Arrays.toString(segments) + '}';
+    return "ConfigPath{" + Arrays.toString(segments()) + '}';
   }
 
   @Override
@@ -245,11 +330,87 @@ public final class ConfigPath implements Iterable<@NonNull String> {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     ConfigPath strings = (ConfigPath) o;
-    return Arrays.equals(segments, strings.segments);
+    if (length != strings.length) return false;
+    if (hash != 0 && strings.hash != 0 && hash != strings.hash) return false;
+    if (tail == strings.tail && offset == strings.offset) return true;
+    // segments are materialized once, as get walks the chain of chunks on every call
+    return Arrays.equals(segments(), strings.segments());
   }
 
+  /**
+   * Returns the hash code of this path, which is equal to {@code Arrays.hashCode} of the
+   * segment array.
+   */
   @Override
   public int hashCode() {
-    return Arrays.hashCode(segments);
+    int h = hash;
+    if (h == 0) hash = h = Arrays.hashCode(segments());
+    return h;
+  }
+
+  /** Returns the segments of this path, materialized at most once, which must not leak. */
+  private @NonNull String @NonNull [] segments() {
+    String[] segments = this.segments;
+    if (segments != null) return segments;
+    if (isEmpty()) return this.segments = ArrayUtils.EMPTY_STRING_ARRAY;
+    segments = new String[length];
+    final int end = offset + length;
+    for (Chunk chunk = tail; chunk != null && chunk.end() > offset; chunk = chunk.parent) {
+      int from = Math.max(chunk.start(), offset), to = Math.min(chunk.end(), end);
+      if (from < to)
+        System.arraycopy(chunk.segments, from - chunk.start(), segments, from - offset,
+            to - from);
+    }
+    return this.segments = segments;
+  }
+
+  /** Appends valid {@code array}, that is no one else is referencing, to this path. */
+  private @NonNull ConfigPath append(@NonNull String @NonNull [] array) {
+    Chunk parent = Objects.requireNonNull(tail);
+    final int end = offset + length;
+    if (parent.end() != end) {
+      // this path is a view that does not reach to the end of its chain, thus the
+      // chunk containing the last segment is split (only copying within that chunk)
+      while (parent.start() >= end)
+        parent = Objects.requireNonNull(parent.parent);
+      if (parent.end() != end)
+        parent = new Chunk(parent.parent,
+            Arrays.copyOf(parent.segments, end - parent.start()));
+    }
+    return new ConfigPath(new Chunk(parent, array), offset, length + array.length);
+  }
+
+  /**
+   * Immutable chunk of consecutive segments, linked to the chunk preceding it.
+   */
+  private static final class Chunk {
+    private final @Nullable Chunk parent;
+    private final @NonNull String @NonNull [] segments;
+    /** The total amount of segments of this chunk and all its predecessors. */
+    private final @NonNegative int end;
+
+    private Chunk(@Nullable Chunk parent, @NonNull String @NonNull [] segments) {
+      this.parent = parent;
+      this.segments = segments;
+      this.end = (parent != null ? parent.end : 0) + segments.length;
+    }
+
+    private int start() {
+      return end - segments.length;
+    }
+
+    private int end() {
+      return end;
+    }
+  }
+
+  /**
+   * Immutable node of memoized joined forms, safely publishable without synchronization.
+   */
+  @RequiredArgsConstructor
+  private static final class JoinedForm {
+    private final char separator;
+    private final @NonNull String value;
+    private final JoinedForm next;
   }
 }
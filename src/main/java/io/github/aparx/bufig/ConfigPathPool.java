@@ -0,0 +1,99 @@
+package io.github.aparx.bufig;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Optional canonicalizing pool of {@code ConfigPath} objects, handing out one shared
+ * instance per distinct path.
+ * <p>Canonical paths are held weakly, thus paths no longer referenced elsewhere are
+ * eventually dropped from the pool. Additionally, a bounded amount of string paths are
+ * mapped to their canonical path, so that repeatedly parsed string paths are neither
+ * re-parsed nor re-joined, as a canonical path memoizes its hash and joined forms.
+ * <p>Since two canonical paths are equal if and only if they are identical, lookups of
+ * pooled paths within hash-based maps effectively become identity comparisons.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-27 10:12
+ * @see ConfigPath
+ * @since 1.0
+ */
+@Getter
+public final class ConfigPathPool {
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  private static final ConfigPathPool DEFAULT_POOL =
+      new ConfigPathPool(ConfigPath.DEFAULT_SEPARATOR, DEFAULT_MAXIMUM_SIZE);
+
+  private final char pathSeparator;
+
+  private final @NonNegative int maximumSize;
+
+  @Getter(AccessLevel.NONE)
+  private final Interner<@NonNull ConfigPath> interner = Interners.newWeakInterner();
+
+  @Getter(AccessLevel.NONE)
+  private final Cache<@NonNull String, @NonNull ConfigPath> parsed;
+
+  public ConfigPathPool(char pathSeparator, @NonNegative int maximumSize) {
+    Preconditions.checkArgument(maximumSize >= 0, "Maximum size must not be negative");
+    this.pathSeparator = pathSeparator;
+    this.maximumSize = maximumSize;
+    this.parsed = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .weakValues()
+        .build();
+  }
+
+  public static ConfigPathPool ofDefault() {
+    return DEFAULT_POOL;
+  }
+
+  /**
+   * Returns the canonical instance for given {@code path}, which is either a previously
+   * pooled path equal to {@code path} or {@code path} itself.
+   *
+   * @param path the path to canonicalize
+   * @return the canonical instance that is equal to {@code path}
+   */
+  public @NonNull ConfigPath intern(@NonNull ConfigPath path) {
+    Preconditions.checkNotNull(path, "Path must not be null");
+    if (path.isEmpty()) return ConfigPath.of();
+    return interner.intern(path);
+  }
+
+  /**
+   * Parses given string {@code path} using this pool's path separator and returns the
+   * canonical instance of the result. Recently parsed strings are not parsed again.
+   *
+   * @param path the string path to parse
+   * @return the canonical instance of the parsed path
+   * @see ConfigPath#parse(String, char)
+   */
+  public @NonNull ConfigPath parse(@NonNull String path) {
+    Preconditions.checkNotNull(path, "Path must not be null");
+    if (path.isEmpty()) return ConfigPath.of();
+    ConfigPath cached = parsed.getIfPresent(path);
+    if (cached != null) return cached;
+    try {
+      return parsed.get(path, () -> intern(ConfigPath.parse(path, pathSeparator)));
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public void clear() {
+    parsed.invalidateAll();
+  }
+
+}
@@ -10,6 +10,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.dataflow.qual.Deterministic;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -91,6 +92,26 @@ public interface ConfigSection {
 
   boolean isSection(@NonNull String path);
 
+  /**
+   * Creates a typed key for the value at {@code path} relative to this section, which
+   * resolves the location once and reads the value without further path handling.
+   *
+   * @param path  the path of the value, relative to this section
+   * @param codec the codec used to read the value
+   * @param <T>   the type of value
+   * @return the new key
+   * @see ConfigKey
+   */
+  default <T> @NonNull ConfigKey<T> createKey(
+      @NonNull ConfigPath path, ConfigKey.@NonNull Codec<T> codec) {
+    return ConfigKey.of(this, getPath().add(path), codec);
+  }
+
+  default <T> @NonNull ConfigKey<T> createKey(
+      @NonNull String path, ConfigKey.@NonNull Codec<T> codec) {
+    return createKey(ConfigPath.parse(path, getPathSeparator()), codec);
+  }
+
   default @NonNull FileConfigurationOptions options() {
     if (isRoot()) return ((Config) this).getOutput().options();
     return getRoot().options();
@@ -205,4 +226,140 @@ public interface ConfigSection {
 
   // END RETRIEVERS
 
+  // BEGIN PATH RETRIEVERS
+
+  /*
+   * These are implemented on top of get(ConfigPath), checking the type of the value like
+   * the retrievers of ConfigurationSection. Implementations may override them to read the
+   * value from its containing section directly (see AbstractConfigSection).
+   */
+
+  default String getString(@NonNull ConfigPath path) {
+    return getString(path, null);
+  }
+
+  default String getString(@NonNull ConfigPath path, String def) {
+    Object value = get(path);
+    return value != null ? value.toString() : def;
+  }
+
+  default boolean isString(@NonNull ConfigPath path) {
+    return get(path) instanceof String;
+  }
+
+  default int getInt(@NonNull ConfigPath path) {
+    return getInt(path, 0);
+  }
+
+  default int getInt(@NonNull ConfigPath path, int def) {
+    Object value = get(path);
+    return value instanceof Number ? ((Number) value).intValue() : def;
+  }
+
+  default boolean isInt(@NonNull ConfigPath path) {
+    return get(path) instanceof Integer;
+  }
+
+  default double getDouble(@NonNull ConfigPath path) {
+    return getDouble(path, 0);
+  }
+
+  default double getDouble(@NonNull ConfigPath path, double def) {
+    Object value = get(path);
+    return value instanceof Number ? ((Number) value).doubleValue() : def;
+  }
+
+  default boolean isDouble(@NonNull ConfigPath path) {
+    return get(path) instanceof Double;
+  }
+
+  default long getLong(@NonNull ConfigPath path) {
+    return getLong(path, 0);
+  }
+
+  default long getLong(@NonNull ConfigPath path, long def) {
+    Object value = get(path);
+    return value instanceof Number ? ((Number) value).longValue() : def;
+  }
+
+  default boolean isLong(@NonNull ConfigPath path) {
+    return get(path) instanceof Long;
+  }
+
+  default boolean getBoolean(@NonNull ConfigPath path) {
+    return getBoolean(path, false);
+  }
+
+  default boolean getBoolean(@NonNull ConfigPath path, boolean def) {
+    Object value = get(path);
+    return value instanceof Boolean ? (Boolean) value : def;
+  }
+
+  default boolean isBoolean(@NonNull ConfigPath path) {
+    return get(path) instanceof Boolean;
+  }
+
+  default List<?> getList(@NonNull ConfigPath path) {
+    return getList(path, null);
+  }
+
+  default List<?> getList(@NonNull ConfigPath path, List<?> def) {
+    Object value = get(path);
+    return value instanceof List ? (List<?>) value : def;
+  }
+
+  default boolean isList(@NonNull ConfigPath path) {
+    return get(path) instanceof List;
+  }
+
+  default List<Map<?, ?>> getMapList(@NonNull ConfigPath path) {
+    List<?> list = getList(path);
+    List<Map<?, ?>> maps = new ArrayList<>();
+    if (list == null) return maps;
+    for (Object element : list)
+      if (element instanceof Map) maps.add((Map<?, ?>) element);
+    return maps;
+  }
+
+  default Color getColor(@NonNull ConfigPath path) {
+    return getColor(path, null);
+  }
+
+  default Color getColor(@NonNull ConfigPath path, Color def) {
+    Object value = get(path);
+    return value instanceof Color ? (Color) value : def;
+  }
+
+  default boolean isColor(@NonNull ConfigPath path) {
+    return get(path) instanceof Color;
+  }
+
+  default ItemStack getItemStack(@NonNull ConfigPath path) {
+    return getItemStack(path, null);
+  }
+
+  default ItemStack getItemStack(@NonNull ConfigPath path, ItemStack def) {
+    Object value = get(path);
+    return value instanceof ItemStack ? (ItemStack) value : def;
+  }
+
+  default boolean isItemStack(@NonNull ConfigPath path) {
+    return get(path) instanceof ItemStack;
+  }
+
+  default Vector getVector(@NonNull ConfigPath path) {
+    return getVector(path, null);
+  }
+
+  default Vector getVector(@NonNull ConfigPath path, Vector def) {
+    Object value = get(path);
+    return value instanceof Vector ? (Vector) value : def;
+  }
+
+  default boolean isVector(@NonNull ConfigPath path) {
+    return get(path) instanceof Vector;
+  }
+
+  // END PATH RETRIEVERS
+
 }
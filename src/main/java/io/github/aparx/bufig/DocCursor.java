@@ -0,0 +1,157 @@
+package io.github.aparx.bufig;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable cursor over the paths of a config, looking up their documentation without
+ * allocating a {@code ConfigPath} for each of them, by descending the trie of
+ * documentation, and the one of its template, one segment at a time.
+ * <p>The cursor holds a buffer of segments, where moving to a depth replaces the segment
+ * at that depth and cuts off all deeper ones. Segments of lower depths are kept, even if
+ * they were never set or have been cut off before, in which case invalid segments are
+ * skipped, equivalent to {@link ConfigPath#of(String[])} of the buffer.
+ * <p>A cursor is not thread-safe and must not be used while the documentation of its
+ * config is modified concurrently.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 21:34
+ * @see AbstractConfig#newDocCursor()
+ * @since 1.0
+ */
+public final class DocCursor {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final @NonNull AbstractConfig config;
+
+  private String[] segments = new String[INITIAL_CAPACITY];
+
+  /** The trie node of the valid segments up to each depth, null if there is none. */
+  private DocTrie.Node[] nodes = new DocTrie.Node[INITIAL_CAPACITY];
+
+  /** The template node of the valid segments up to each depth, null if there is none. */
+  private DocTrie.Node[] templateNodes = new DocTrie.Node[INITIAL_CAPACITY];
+
+  /** The amount of valid segments up to each depth. */
+  private int[] counts = new int[INITIAL_CAPACITY];
+
+  private @NonNegative int length;
+
+  /** The amount of depths whose node and count are up-to-date. */
+  private @NonNegative int computed;
+
+  /** The modification count of the trie at the time the nodes were computed. */
+  private int modCount;
+
+  /** The template of the config at the time the nodes were computed. */
+  private @Nullable DocTemplate template;
+
+  DocCursor(@NonNull AbstractConfig config) {
+    this.config = config;
+  }
+
+  /**
+   * Replaces the segment at {@code depth} with {@code segment} and cuts off all deeper
+   * segments, such that the path of this cursor ends at {@code depth}.
+   *
+   * @param depth   the depth of the segment, being its index
+   * @param segment the segment
+   */
+  public void moveTo(@NonNegative int depth, @NonNull String segment) {
+    Preconditions.checkArgument(depth >= 0, "Depth must not be negative");
+    if (depth >= segments.length) {
+      int capacity = Math.max(1 + depth, 2 * segments.length);
+      segments = Arrays.copyOf(segments, capacity);
+      nodes = Arrays.copyOf(nodes, capacity);
+      templateNodes = Arrays.copyOf(templateNodes, capacity);
+      counts = Arrays.copyOf(counts, capacity);
+    }
+    segments[depth] = segment;
+    length = 1 + depth;
+    computed = Math.min(computed, depth);
+  }
+
+  /** Moves this cursor back to the root, clearing all segments. */
+  public void reset() {
+    Arrays.fill(segments, null);
+    length = computed = 0;
+  }
+
+  /**
+   * Returns a read-only view of the documentation of the current path, without copying.
+   *
+   * @return the documentation lines, or null if the current path has no documentation
+   */
+  public @Nullable List<@NonNull String> getDocs() {
+    if (!prepare()) return null;
+    DocTrie.Node node = nodes[length - 1];
+    List<String> docs = node != null ? node.docs() : null;
+    // empty documentation of the config masks the template
+    if (docs != null) return !docs.isEmpty() ? docs : null;
+    node = templateNodes[length - 1];
+    return node != null ? node.docs() : null;
+  }
+
+  public boolean hasDocs() {
+    return getDocs() != null;
+  }
+
+  /**
+   * Sets the documentation of the current path to {@code docs}, if it has none yet. Only
+   * allocates the path and a copy of {@code docs} if they are actually stored.
+   *
+   * @param docs the documentation lines
+   * @return true if the current path had no documentation
+   */
+  public boolean setDocsIfAbsent(@NonNull List<@NonNull String> docs) {
+    Preconditions.checkNotNull(docs, "Docs must not be null");
+    if (hasDocs()) return false;
+    if (!docs.isEmpty())
+      config.putDocs(toPath(), ImmutableList.copyOf(docs));
+    return true;
+  }
+
+  /** Returns the current path of this cursor as a new {@code ConfigPath}. */
+  public @NonNull ConfigPath toPath() {
+    return ConfigPath.of(Arrays.copyOf(segments, length));
+  }
+
+  /**
+   * Descends the tries along all depths not yet computed, returning false if the current
+   * path is empty, in which case the nodes of the current path are undefined.
+   */
+  private boolean prepare() {
+    DocTrie trie = config.getDocTrie();
+    DocTemplate template = config.getDocTemplate();
+    if (modCount != trie.modCount() || this.template != template) {
+      modCount = trie.modCount();
+      this.template = template;
+      computed = 0;
+    }
+    for (int i = computed; i < length; ++i) {
+      DocTrie.Node node = i != 0 ? nodes[i - 1] : trie.root();
+      DocTrie.Node templateNode = i != 0 ? templateNodes[i - 1]
+          : template != null ? template.getTrie().root() : null;
+      int count = i != 0 ? counts[i - 1] : 0;
+      String segment = segments[i];
+      if (ConfigPath.isValidSegment(segment)) {
+        node = node != null ? node.child(segment) : null;
+        templateNode = templateNode != null ? templateNode.child(segment) : null;
+        ++count;
+      }
+      nodes[i] = node;
+      templateNodes[i] = templateNode;
+      counts[i] = count;
+    }
+    computed = length;
+    return length != 0 && counts[length - 1] != 0;
+  }
+
+}
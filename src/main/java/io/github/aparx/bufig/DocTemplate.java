@@ -0,0 +1,72 @@
+package io.github.aparx.bufig;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable layer of documentation shared by many configs, such as the documentation
+ * declared by the annotations of a {@code ConfigObject} class, which is held once instead
+ * of being copied into every config.
+ * <p>A config with a template stores only the documentation that differs from it. Its
+ * documentation is looked up in its own documentation first and in the template second,
+ * thus documentation set on the config overrides the template. Removing documentation
+ * the template provides stores an empty override, masking the template for that path.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-01 14:20
+ * @see AbstractConfig#setDocTemplate(DocTemplate)
+ * @since 1.0
+ */
+public final class DocTemplate {
+
+  private final @NonNull DocTrie trie;
+
+  private DocTemplate(@NonNull DocTrie trie) {
+    this.trie = trie;
+  }
+
+  /**
+   * Returns a template of {@code docs}, omitting paths without documentation.
+   *
+   * @param docs the documentation lines of each path
+   * @return the new template
+   */
+  public static @NonNull DocTemplate of(
+      @NonNull Map<@NonNull ConfigPath, ? extends @NonNull List<String>> docs) {
+    Preconditions.checkNotNull(docs, "Docs must not be null");
+    DocTrie trie = new DocTrie();
+    docs.forEach((path, lines) -> {
+      Preconditions.checkNotNull(path, "Path must not be null");
+      ImmutableList<String> copy = lines.stream()
+          .filter(Objects::nonNull)
+          .collect(ImmutableList.toImmutableList());
+      if (!copy.isEmpty()) trie.put(path, copy);
+    });
+    return new DocTemplate(trie);
+  }
+
+  public @Nullable List<@NonNull String> getDocs(@NonNull ConfigPath path) {
+    Preconditions.checkNotNull(path, "Path must not be null");
+    return trie.get(path);
+  }
+
+  public boolean hasDocs(@NonNull ConfigPath path) {
+    return getDocs(path) != null;
+  }
+
+  /** Returns the amount of paths that are documented in this template. */
+  public int size() {
+    return trie.size();
+  }
+
+  @NonNull DocTrie getTrie() {
+    return trie;
+  }
+
+}
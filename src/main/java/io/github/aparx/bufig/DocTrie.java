@@ -0,0 +1,173 @@
+package io.github.aparx.bufig;
+
+import com.google.common.collect.ImmutableList;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Trie of documentation keyed by path segments, such that paths are looked up segment by
+ * segment and all documentation within a subtree can be found or removed at once.
+ * <p>Nodes without documentation and without children are pruned on removal, thus the
+ * trie never holds more nodes than the paths that are documented and their ancestors.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 22:48
+ * @see DocCursor
+ * @since 1.0
+ */
+final class DocTrie {
+
+  private final @NonNull Node root = new Node();
+
+  /** Counter of structural modifications, invalidating nodes cached by cursors. */
+  private int modCount;
+
+  private int size;
+
+  @NonNull Node root() {
+    return root;
+  }
+
+  int modCount() {
+    return modCount;
+  }
+
+  int size() {
+    return size;
+  }
+
+  @Nullable ImmutableList<String> get(@NonNull ConfigPath path) {
+    Node node = find(path);
+    return node != null ? node.docs : null;
+  }
+
+  /**
+   * Sets the documentation of {@code path} to {@code docs}, which are stored even if empty.
+   *
+   * @return the previous documentation, or null if there was none
+   */
+  @Nullable ImmutableList<String> put(
+      @NonNull ConfigPath path,
+      @NonNull ImmutableList<String> docs) {
+    Node node = root;
+    for (String segment : path) {
+      Node child = node.child(segment);
+      if (child == null) {
+        if (node.children == null) node.children = new HashMap<>(4);
+        node.children.put(segment, child = new Node());
+        ++modCount;
+      }
+      node = child;
+    }
+    ImmutableList<String> previous = node.docs;
+    node.docs = docs;
+    if (previous == null) ++size;
+    return previous;
+  }
+
+  @Nullable ImmutableList<String> remove(@NonNull ConfigPath path) {
+    Node[] nodes = new Node[1 + path.length()];
+    if (!trace(path, nodes)) return null;
+    Node node = nodes[path.length()];
+    ImmutableList<String> previous = node.docs;
+    if (previous == null) return null;
+    node.docs = null;
+    --size;
+    prune(path, nodes);
+    return previous;
+  }
+
+  /**
+   * Removes the documentation of all paths strictly below {@code path}.
+   *
+   * @return the amount of paths whose documentation has been removed
+   */
+  int removeDescendants(@NonNull ConfigPath path) {
+    Node[] nodes = new Node[1 + path.length()];
+    if (!trace(path, nodes)) return 0;
+    Node node = nodes[path.length()];
+    if (node.children == null) return 0;
+    int removed = count(node) - (node.docs != null ? 1 : 0);
+    node.children = null;
+    size -= removed;
+    ++modCount;
+    prune(path, nodes);
+    return removed;
+  }
+
+  /** Calls {@code action} for {@code path} and every path below it that is documented. */
+  void forEach(
+      @NonNull ConfigPath path,
+      @NonNull BiConsumer<@NonNull ConfigPath, @NonNull ImmutableList<String>> action) {
+    Node node = find(path);
+    if (node != null) forEach(node, path, action);
+  }
+
+  private static void forEach(
+      @NonNull Node node,
+      @NonNull ConfigPath path,
+      @NonNull BiConsumer<@NonNull ConfigPath, @NonNull ImmutableList<String>> action) {
+    if (node.docs != null) action.accept(path, node.docs);
+    if (node.children != null)
+      node.children.forEach((segment, child) -> forEach(child, path.add(segment), action));
+  }
+
+  private @Nullable Node find(@NonNull ConfigPath path) {
+    Node node = root;
+    for (int i = 0, n = path.length(); i < n && node != null; ++i)
+      node = node.child(path.get(i));
+    return node;
+  }
+
+  /** Fills {@code nodes} with the nodes along {@code path}, returning false if absent. */
+  private boolean trace(@NonNull ConfigPath path, @Nullable Node @NonNull [] nodes) {
+    Node node = root;
+    nodes[0] = node;
+    for (int i = 0, n = path.length(); i < n; ++i) {
+      node = node.child(path.get(i));
+      if (node == null) return false;
+      nodes[1 + i] = node;
+    }
+    return true;
+  }
+
+  /** Removes the empty nodes at the end of the traced {@code path}. */
+  private void prune(@NonNull ConfigPath path, @NonNull Node @NonNull [] nodes) {
+    for (int i = path.length(); i > 0 && nodes[i].isEmpty(); --i) {
+      Node parent = nodes[i - 1];
+      parent.children.remove(path.get(i - 1));
+      if (parent.children.isEmpty()) parent.children = null;
+      ++modCount;
+    }
+  }
+
+  private static int count(@NonNull Node node) {
+    int count = node.docs != null ? 1 : 0;
+    if (node.children != null)
+      for (Node child : node.children.values())
+        count += count(child);
+    return count;
+  }
+
+  static final class Node {
+    private @Nullable Map<@NonNull String, @NonNull Node> children;
+    private @Nullable ImmutableList<String> docs;
+
+    @Nullable Node child(@NonNull String segment) {
+      return children != null ? children.get(segment) : null;
+    }
+
+    @Nullable ImmutableList<String> docs() {
+      return docs;
+    }
+
+    boolean isEmpty() {
+      return docs == null && children == null;
+    }
+  }
+
+}
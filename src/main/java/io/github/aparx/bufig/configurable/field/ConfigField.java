@@ -2,7 +2,10 @@ package io.github.aparx.bufig.configurable.field;
 
 import com.google.common.base.Defaults;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ForwardingIterator;
+import com.google.common.collect.ForwardingSet;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Primitives;
 import io.github.aparx.bufig.ConfigPath;
 import io.github.aparx.bufig.configurable.Configurable;
 import io.github.aparx.bufig.configurable.ConfigurableValue;
@@ -16,14 +19,20 @@ import org.bukkit.configuration.serialization.ConfigurationSerializable;
 import org.bukkit.configuration.serialization.ConfigurationSerialization;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -48,18 +57,30 @@ public class ConfigField<A extends Configurable> implements ConfigurableValue<A,
   /** @deprecated This is experimental. Adding or removing mutators is not recommended yet. */
   @Getter
   @Deprecated
-  private static final Set<@NonNull ConfigFieldValueMutator> mutators = Sets.newHashSet(
-      ConfigFieldValueMutator.newMapper(AtomicReference.class, Object.class,
-          (field, ref) -> ref.get(), (field, val) -> new AtomicReference<>(val)),
-      ConfigFieldValueMutator.newMapper(WeakReference.class, Object.class,
-          (field, ref) -> ref.get(), (field, val) -> new WeakReference<>(val)),
-      ConfigFieldValueMutator.newMapper(ConfigurationSerializable.class, Map.class,
-          (field, value) -> value.serialize(), (field, value) -> {
-            //noinspection unchecked
-            return ConfigurationSerialization.deserializeObject((Map<String, ?>) value,
-                (Class<? extends ConfigurationSerializable>) field.getType());
-          })
-  );
+  private static final Set<@NonNull ConfigFieldValueMutator> mutators = new MutatorSet(
+      Sets.newHashSet(
+          ConfigFieldValueMutator.newMapper(AtomicReference.class, Object.class,
+              (field, ref) -> ref.get(), (field, val) -> new AtomicReference<>(val)),
+          ConfigFieldValueMutator.newMapper(WeakReference.class, Object.class,
+              (field, ref) -> ref.get(), (field, val) -> new WeakReference<>(val)),
+          ConfigFieldValueMutator.newMapper(ConfigurationSerializable.class, Map.class,
+              (field, value) -> value.serialize(), (field, value) -> {
+                //noinspection unchecked
+                return ConfigurationSerialization.deserializeObject((Map<String, ?>) value,
+                    (Class<? extends ConfigurationSerializable>) field.getType());
+              })
+      ));
+
+  /** Counter of modifications of the mutators, invalidating the ones cached by fields. */
+  private static volatile int mutatorsVersion;
+
+  /** The accessors of config fields, by their declaring class and name. */
+  private static final ClassValue<Map<String, Accessor>> ACCESSORS = new ClassValue<>() {
+    @Override
+    protected Map<String, Accessor> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
 
   private final @NonNull Field field;
 
@@ -68,6 +89,10 @@ public class ConfigField<A extends Configurable> implements ConfigurableValue<A,
   @Getter(AccessLevel.NONE)
   private final String @NonNull [] docs;
 
+  /** The accessor of {@code field}, resolved on first access and shared across instances. */
+  @Getter(AccessLevel.NONE)
+  private volatile Accessor accessor;
+
   public ConfigField(@NonNull Field field) {
     Preconditions.checkNotNull(field, "Field must not be null");
     Preconditions.checkState(isValidField(field), "Field not a valid config field");
@@ -120,33 +145,48 @@ public class ConfigField<A extends Configurable> implements ConfigurableValue<A,
   public void unsafeSet(A accessor, Object value) {
     if (value instanceof ConfigurationSection && Map.class.isAssignableFrom(getType()))
       unsafeSet(accessor, ((ConfigurationSection) value).getValues(false));
-    else if (ConfigurationSerializable.class.isAssignableFrom(getType())
-        && value instanceof ConfigurationSection)
+    else if (value instanceof ConfigurationSection
+        && ConfigurationSerializable.class.isAssignableFrom(getType()))
       unsafeSet(accessor, ((ConfigurationSection) value).getValues(false));
     else {
-      for (ConfigFieldValueMutator mutator : getMutators())
+      for (ConfigFieldValueMutator mutator : resolveAccessor().mutators)
         value = mutator.write(accessor, this, value);
       writeSafely(accessor, value);
     }
   }
 
-  private Object read(@NonNull A accessor) throws IllegalAccessException {
-    Preconditions.checkState(field.trySetAccessible());
-    Object value = field.get(accessor);
-    for (ConfigFieldValueMutator mutator : getMutators())
+  private Object read(@NonNull A accessor) throws Throwable {
+    Accessor resolved = resolveAccessor();
+    Object value = (Object) resolved.getter.invokeExact((Object) accessor);
+    for (ConfigFieldValueMutator mutator : resolved.mutators)
       value = mutator.read(accessor, this, value);
     return value;
   }
 
-  private void write(@NonNull A accessor, Object value) throws IllegalAccessException {
-    Preconditions.checkState(field.trySetAccessible());
-    field.set(accessor, value);
+  private void write(@NonNull A accessor, Object value) throws Throwable {
+    Accessor resolved = resolveAccessor();
+    // widening of primitives and rejecting values not assignable is left to reflection
+    if (value != null && !resolved.valueType.isInstance(value))
+      resolved.member.set(accessor, value);
+    else resolved.setter.invokeExact((Object) accessor, value);
   }
 
-  private void writeSafely(@NonNull A accessor, Object value) throws IllegalAccessException {
+  private void writeSafely(@NonNull A accessor, Object value) throws Throwable {
     write(accessor, value != null ? value : Defaults.defaultValue(getType()));
   }
 
+  private @NonNull Accessor resolveAccessor() {
+    Accessor accessor = this.accessor;
+    final int version = mutatorsVersion;
+    if (accessor == null || accessor.version != version)
+      this.accessor = accessor = ACCESSORS.get(field.getDeclaringClass())
+          .compute(field.getName(), (name, current) -> {
+            if (current == null) return Accessor.of(this, version);
+            return current.version != version ? current.withMutators(this, version) : current;
+          });
+    return accessor;
+  }
+
   @Override
   public String toString() {
     return "ConfigField{" +
@@ -155,4 +195,135 @@ public class ConfigField<A extends Configurable> implements ConfigurableValue<A,
         ", docs=" + Arrays.toString(docs) +
         '}';
   }
+
+  /**
+   * Method handles getting and setting a field, along with the mutators applying to it,
+   * resolved once instead of checking access and types on every access. Primitive values
+   * are boxed and unboxed by the handles, with conversions specialized to the field type.
+   */
+  private static final class Accessor {
+
+    private static final MethodType GETTER_TYPE =
+        MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE =
+        MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final @NonNull MethodHandle getter;
+
+    private final @NonNull MethodHandle setter;
+
+    /** The field made accessible, shared by all config fields of the same member. */
+    private final @NonNull Field member;
+
+    /** The type of the field, wrapped if primitive, which the setter accepts. */
+    private final @NonNull Class<?> valueType;
+
+    /** The version of the mutators at the time {@code mutators} were resolved. */
+    private final int version;
+
+    private final ConfigFieldValueMutator @NonNull [] mutators;
+
+    private Accessor(
+        @NonNull MethodHandle getter,
+        @NonNull MethodHandle setter,
+        @NonNull Field member,
+        @NonNull ConfigField<?> field,
+        int version) {
+      this.getter = getter;
+      this.setter = setter;
+      this.member = member;
+      this.valueType = Primitives.wrap(field.getType());
+      this.version = version;
+      this.mutators = ConfigField.mutators.stream()
+          .filter((mutator) -> mutator.appliesTo(field))
+          .toArray(ConfigFieldValueMutator[]::new);
+    }
+
+    static @NonNull Accessor of(@NonNull ConfigField<?> field, int version) {
+      Field member = field.getField();
+      Preconditions.checkState(member.trySetAccessible(), "Field {0} is not accessible", member);
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        return new Accessor(
+            lookup.unreflectGetter(member).asType(GETTER_TYPE),
+            lookup.unreflectSetter(member).asType(SETTER_TYPE),
+            member, field, version);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @NonNull Accessor withMutators(@NonNull ConfigField<?> field, int version) {
+      return new Accessor(getter, setter, member, field, version);
+    }
+  }
+
+  /** Set of mutators advancing the version of the mutators whenever it is modified. */
+  private static final class MutatorSet extends ForwardingSet<ConfigFieldValueMutator> {
+
+    private final @NonNull Set<ConfigFieldValueMutator> delegate;
+
+    MutatorSet(@NonNull Set<ConfigFieldValueMutator> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    protected @NonNull Set<ConfigFieldValueMutator> delegate() {
+      return delegate;
+    }
+
+    @Override
+    public boolean add(ConfigFieldValueMutator mutator) {
+      return modified(delegate.add(mutator));
+    }
+
+    @Override
+    public boolean addAll(@NonNull Collection<? extends ConfigFieldValueMutator> c) {
+      return standardAddAll(c);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return modified(delegate.remove(o));
+    }
+
+    @Override
+    public boolean removeAll(@NonNull Collection<?> c) {
+      return standardRemoveAll(c);
+    }
+
+    @Override
+    public boolean retainAll(@NonNull Collection<?> c) {
+      return standardRetainAll(c);
+    }
+
+    @Override
+    public void clear() {
+      delegate.clear();
+      modified(true);
+    }
+
+    @Override
+    public @NonNull Iterator<ConfigFieldValueMutator> iterator() {
+      Iterator<ConfigFieldValueMutator> iterator = delegate.iterator();
+      return new ForwardingIterator<>() {
+        @Override
+        protected Iterator<ConfigFieldValueMutator> delegate() {
+          return iterator;
+        }
+
+        @Override
+        public void remove() {
+          iterator.remove();
+          modified(true);
+        }
+      };
+    }
+
+    private static boolean modified(boolean modified) {
+      if (modified) ++mutatorsVersion;
+      return modified;
+    }
+  }
 }
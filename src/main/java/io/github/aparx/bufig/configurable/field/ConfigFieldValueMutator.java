@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 import io.github.aparx.bufig.configurable.Configurable;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.lang.reflect.Modifier;
 import java.util.function.BiFunction;
 
 /**
@@ -17,6 +18,18 @@ public interface ConfigFieldValueMutator {
 
   Object write(Configurable accessor, ConfigField<?> field, Object value);
 
+  /**
+   * Returns true if this mutator may alter values read from or written to {@code field},
+   * determined once per field, such that other mutators are not called for its values.
+   *
+   * @param field the field whose values may be mutated
+   * @return false if {@code read} and {@code write} always return values unchanged
+   * @since 1.0
+   */
+  default boolean appliesTo(@NonNull ConfigField<?> field) {
+    return true;
+  }
+
   static <L, R> ConfigFieldValueMutator newMapper(
       @NonNull Class<L> targetType,
       @NonNull Class<R> originType,
@@ -27,6 +40,14 @@ public interface ConfigFieldValueMutator {
     Preconditions.checkNotNull(reader, "Reader must not be null");
     Preconditions.checkNotNull(writer, "Writer must not be null");
     return new ConfigFieldValueMutator() {
+      @Override
+      public boolean appliesTo(@NonNull ConfigField<?> field) {
+        Class<?> type = field.getType();
+        // values are only read if they may be instances of both the field and target type
+        return targetType.isAssignableFrom(type)
+            || (originType.isAssignableFrom(type) && mayIntersect(type, targetType));
+      }
+
       @Override
       public Object read(Configurable accessor, ConfigField<?> field, Object value) {
         if (value != null
@@ -47,5 +68,11 @@ public interface ConfigFieldValueMutator {
     };
   }
 
+  private static boolean mayIntersect(@NonNull Class<?> first, @NonNull Class<?> second) {
+    if (first.isAssignableFrom(second) || second.isAssignableFrom(first)) return true;
+    return (first.isInterface() && !Modifier.isFinal(second.getModifiers()))
+        || (second.isInterface() && !Modifier.isFinal(first.getModifiers()));
+  }
+
 }
 
@@ -1,9 +1,13 @@
 package io.github.aparx.bufig.configurable.object;
 
 import com.google.common.base.Preconditions;
+import io.github.aparx.bufig.AbstractConfig;
 import io.github.aparx.bufig.Config;
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.DocTemplate;
 import io.github.aparx.bufig.configurable.Configurable;
 import io.github.aparx.bufig.configurable.ConfigurableHandle;
+import io.github.aparx.bufig.configurable.field.ConfigField;
 import io.github.aparx.bufig.configurable.field.Document;
 import io.github.aparx.bufig.configurable.populator.ConfigFieldPopulator;
 import io.github.aparx.bufig.handler.ConfigHandler;
@@ -13,7 +17,14 @@ import org.apache.commons.lang.ArrayUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import javax.print.Doc;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -23,6 +34,15 @@ import java.util.function.Function;
  */
 public class ConfigObject extends ConfigProxy implements Configurable {
 
+  /** The documentation templates of each class, by the path separator they are parsed with. */
+  private static final ClassValue<Map<Character, DocTemplate>> DOC_TEMPLATES =
+      new ClassValue<>() {
+        @Override
+        protected Map<Character, DocTemplate> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>(1);
+        }
+      };
+
   private final String configId;
 
   @Getter
@@ -77,6 +97,34 @@ public class ConfigObject extends ConfigProxy implements Configurable {
         .orElseThrow(() -> new IllegalStateException("Missing 'ConfigId' annotation"));
   }
 
+  /**
+   * Returns the template of the documentation declared by the config fields of {@code cls}
+   * and its superclasses, which is created once per class and path separator and shared
+   * by all configs of that class.
+   *
+   * @param cls           the class whose fields to document
+   * @param pathSeparator the separator the names of the fields are parsed with
+   * @return the shared template
+   */
+  public static @NonNull DocTemplate getDocTemplate(
+      @NonNull Class<? extends ConfigObject> cls, char pathSeparator) {
+    Preconditions.checkNotNull(cls, "Class must not be null");
+    return DOC_TEMPLATES.get(cls).computeIfAbsent(pathSeparator,
+        (ignored) -> createDocTemplate(cls, pathSeparator));
+  }
+
+  private static DocTemplate createDocTemplate(Class<?> cls, char pathSeparator) {
+    Map<ConfigPath, List<String>> docs = new LinkedHashMap<>();
+    // fields of subclasses shadow equally named fields, equivalent to the field lookup
+    for (; cls != Object.class; cls = cls.getSuperclass())
+      for (Field field : cls.getDeclaredFields())
+        if (ConfigField.isValidField(field)) {
+          ConfigField<?> value = new ConfigField<>(field);
+          docs.putIfAbsent(value.toPath(pathSeparator), Arrays.asList(value.getDocs()));
+        }
+    return DocTemplate.of(docs);
+  }
+
   protected static ConfigurableHandle<ConfigObject> createFieldLookupHandle() {
     return new ConfigurableHandle<>(new ConfigFieldPopulator<>(ConfigObject.class));
   }
@@ -89,20 +137,58 @@ public class ConfigObject extends ConfigProxy implements Configurable {
   @Override
   public void save() {
     super.save();
-    getHandle().getValues(this).forEach(value -> {
-      value.unsafeSet(this, get(value.toPath(getPathSeparator())));
-    });
+    readValues();
+  }
+
+  @Override
+  public CompletableFuture<Void> saveAsync() {
+    CompletableFuture<Void> future = super.saveAsync();
+    readValues();
+    return future;
+  }
+
+  @Override
+  public boolean saveIfDirty() {
+    boolean saved = super.saveIfDirty();
+    readValues();
+    return saved;
   }
 
   @Override
   public void load() {
     super.load();
+    applyDocTemplate();
     Document document = getClass().getAnnotation(Document.class);
     if (document != null && (document.force() || ArrayUtils.isEmpty(getHeader())))
       setHeader(document.value());
     getHandle().getValues(this).forEach(value -> {
-      setIfAbsent(value.toPath(getPathSeparator()), () -> value.get(this), value.getDocs());
+      // documentation equal to the template is not stored, thus only copied if absent
+      ConfigPath path = value.toPath(getPathSeparator());
+      if (!contains(path)) set(path, value.get(this), value.getDocs());
+    });
+    saveIfDirty();
+  }
+
+  /**
+   * Sets the documentation template of this class on the underlying config, unless the
+   * config is not an {@code AbstractConfig}, this object is offset or the config already
+   * has a template, in which case the documentation is stored per config.
+   */
+  private void applyDocTemplate() {
+    if (!getOffsetPath().isEmpty()) return;
+    Config config = getConfig();
+    if (!(config instanceof AbstractConfig)) return;
+    DocTemplate template = getDocTemplate(getClass(), getPathSeparator());
+    if (template.size() == 0) return;
+    AbstractConfig target = (AbstractConfig) config;
+    synchronized (target) {
+      if (target.getDocTemplate() == null) target.setDocTemplate(template);
+    }
+  }
+
+  private void readValues() {
+    getHandle().getValues(this).forEach(value -> {
+      value.unsafeSet(this, get(value.toPath(getPathSeparator())));
     });
-    save();
   }
 }
@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 import io.github.aparx.bufig.AbstractConfig;
 import io.github.aparx.bufig.processors.ContentProcessor;
 import io.github.aparx.bufig.processors.ContentScanner;
+import io.github.aparx.bufig.processors.results.ContentScan;
 import lombok.Getter;
 import org.apache.commons.lang.Validate;
 import org.bukkit.configuration.InvalidConfigurationException;
@@ -11,6 +12,9 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 
 /**
  * @param <S> self type, being the implementation type itself (primarily for processors)
@@ -53,10 +57,29 @@ public class DefaultConfig<S extends DefaultConfig<S>> extends AbstractConfig {
   @Override
   @SuppressWarnings("unchecked") // OK? assume the user passed right generic
   public synchronized void loadFromString(String contents) {
+    loadScan(scanner.scan((S) this, contents));
+  }
+
+  /** Loads the contents while they are read, using a streaming scan of the scanner. */
+  @Override
+  @SuppressWarnings("unchecked") // OK? assume the user passed right generic
+  protected synchronized void loadFrom(@NonNull Reader reader) throws IOException {
+    try {
+      loadScan(scanner.scan((S) this, reader));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @SuppressWarnings("unchecked") // OK? assume the user passed right generic
+  private void loadScan(@NonNull ContentScan scan) {
     try {
-      getOutput().loadFromString(processor.load((S) this, scanner.scan((S) this, contents)));
+      getOutput().loadFromString(processor.load((S) this, scan));
     } catch (InvalidConfigurationException e) {
       throw new RuntimeException(e);
+    } finally {
+      nextGeneration();
+      markModified();
     }
   }
 
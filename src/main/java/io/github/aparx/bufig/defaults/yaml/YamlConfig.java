@@ -1,5 +1,6 @@
 package io.github.aparx.bufig.defaults.yaml;
 
+import io.github.aparx.bufig.AbstractConfig;
 import io.github.aparx.bufig.defaults.DefaultConfig;
 import io.github.aparx.bufig.processors.ContentProcessor;
 import io.github.aparx.bufig.processors.ContentScanner;
@@ -7,7 +8,7 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.configuration.file.YamlConfigurationOptions;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.io.File;
+import java.io.*;
 
 /**
  * @author aparx (Vinzent Z.)
@@ -21,11 +22,11 @@ public class YamlConfig extends DefaultConfig<YamlConfig> {
       @NonNull File file,
       @NonNull ContentScanner<YamlConfig> scanner,
       @NonNull ContentProcessor<YamlConfig> processor) {
-    super(new YamlConfiguration(), id, file, scanner, processor);
+    super(new Output(), id, file, scanner, processor);
   }
 
   public YamlConfig(@NonNull String id, @NonNull File file) {
-    this(id, file, YamlProcessors.newScanner(), YamlProcessors.newProcessor());
+    this(id, file, YamlProcessors.newLineScanner(), YamlProcessors.newProcessor());
   }
 
   @Override
@@ -37,4 +38,74 @@ public class YamlConfig extends DefaultConfig<YamlConfig> {
   public @NonNull YamlConfigurationOptions options() {
     return (YamlConfigurationOptions) super.options();
   }
+
+  /**
+   * {@inheritDoc}
+   * <p>If this config uses the default scanner and processor, and its value tree is
+   * supported by the single-pass emitter, the contents are emitted directly rather than
+   * dumped, scanned and processed again. The result is the same in both cases.
+   */
+  @Override
+  public synchronized String saveToString() {
+    if (usesDefaultPipeline()) {
+      StringBuilder builder = new StringBuilder();
+      if (emit(builder)) return builder.toString();
+    }
+    return super.saveToString();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>Contents emitted by the single-pass emitter are encoded as they are emitted, rather
+   * than being built as a string first.
+   */
+  @Override
+  protected synchronized byte @NonNull [] saveToBytes() {
+    if (usesDefaultPipeline()) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      Writer writer = new BufferedWriter(new OutputStreamWriter(bytes, getCharset()));
+      if (emit(writer)) {
+        try {
+          writer.flush();
+        } catch (IOException e) {
+          throw new AssertionError(e);
+        }
+        return bytes.toByteArray();
+      }
+    }
+    return super.saveToString().getBytes(getCharset());
+  }
+
+  /** Returns a new config using the scanner and processor of this config. */
+  @Override
+  protected @NonNull AbstractConfig createDetached() {
+    return new YamlConfig(getId(), getFile(), getScanner(), getProcessor());
+  }
+
+  @NonNull String buildHeader() {
+    return ((Output) getOutput()).buildHeader();
+  }
+
+  private boolean usesDefaultPipeline() {
+    return getProcessor() == YamlProcessors.newProcessor()
+        && (getScanner() == YamlProcessors.newLineScanner()
+        || getScanner() == YamlProcessors.newScanner());
+  }
+
+  /** Emits this config to the in-memory {@code out}, returning false if not supported. */
+  private boolean emit(@NonNull Appendable out) {
+    try {
+      return YamlEmitter.tryEmit(this, out);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /** Output exposing the header built by Bukkit to the emitter. */
+  private static final class Output extends YamlConfiguration {
+    @Override
+    protected String buildHeader() {
+      return super.buildHeader();
+    }
+  }
 }
@@ -0,0 +1,201 @@
+package io.github.aparx.bufig.defaults.yaml;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import io.github.aparx.bufig.DocCursor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Emitter writing the value tree and documentation of a {@code YamlConfig} in a single
+ * pass, walking the sections and the documentation together instead of dumping, scanning
+ * and rebuilding the contents.
+ * <p>The output is byte-compatible with the default scanner and processor applied to the
+ * dump of Bukkit. As that requires replicating the rules of the YAML dumper, only trees
+ * whose representation is unambiguous are supported: keys of words separated by spaces,
+ * integers, longs, booleans, decimals without exponent, strings that are written plain
+ * on a single line, distinct lists of these and nested sections. Unsupported values are
+ * detected while emitting, in which case the partial output is discarded and the default
+ * pipeline is used instead (see {@link #tryEmit(YamlConfig, Appendable)}).
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 20:05
+ * @see YamlConfig#saveToString()
+ * @since 1.0
+ */
+final class YamlEmitter {
+
+  /** The preferred line width of the YAML dumper, beyond which it folds plain scalars. */
+  private static final int LINE_WIDTH = 80;
+
+  /** Maximum length of keys the YAML dumper writes as simple keys. */
+  private static final int MAX_KEY_LENGTH = 128;
+
+  /** Plain words resolved to booleans or null by the YAML resolver. */
+  private static final ImmutableSet<String> RESERVED_WORDS = ImmutableSet.of(
+      "yes", "Yes", "YES", "no", "No", "NO", "true", "True", "TRUE", "false", "False",
+      "FALSE", "on", "On", "ON", "off", "Off", "OFF", "null", "Null", "NULL");
+
+  private final @NonNull YamlConfig config;
+
+  private final @NonNull Appendable out;
+
+  private final @NonNull DocCursor cursor;
+
+  private final @NonNull String lineSeparator = System.lineSeparator();
+
+  private final int indent;
+
+  private boolean started;
+
+  /** The lists emitted so far, as the dumper writes repeated instances as aliases. */
+  private @Nullable Set<Object> lists;
+
+  private YamlEmitter(@NonNull YamlConfig config, @NonNull Appendable out) {
+    this.config = config;
+    this.out = out;
+    this.cursor = config.newDocCursor();
+    this.indent = config.options().indent();
+  }
+
+  /**
+   * Emits the header, documentation and value tree of {@code config} to {@code out} in a
+   * single pass, stopping at the first value that is not supported. The contents written
+   * to {@code out} until then must be discarded if this returns false.
+   *
+   * @param config the config to emit
+   * @param out    the target of the emitted contents
+   * @return true if the whole tree has been emitted, false if it is not supported
+   * @throws IOException if {@code out} fails
+   */
+  public static boolean tryEmit(
+      @NonNull YamlConfig config,
+      @NonNull Appendable out) throws IOException {
+    Preconditions.checkNotNull(config, "Config must not be null");
+    Preconditions.checkNotNull(out, "Output must not be null");
+    return new YamlEmitter(config, out).emit();
+  }
+
+  private boolean emit() throws IOException {
+    boolean hasBody = !config.getOutput().getKeys(false).isEmpty();
+    String[] header = config.buildHeader().split("\n", -1);
+    // the header ends with a line feed, trailing empty lines are omitted if there is no body
+    int headerLength = header.length - 1;
+    if (!hasBody)
+      while (headerLength > 0 && stripCarriageReturn(header[headerLength - 1]).isEmpty())
+        --headerLength;
+    for (int i = 0; i < headerLength; ++i)
+      line().append(stripCarriageReturn(header[i]));
+    return !hasBody || emitSection(config.getOutput(), 0);
+  }
+
+  private boolean emitSection(
+      @NonNull ConfigurationSection section, int depth) throws IOException {
+    String whitespace = " ".repeat(depth * indent);
+    for (Map.Entry<String, Object> entry : section.getValues(false).entrySet()) {
+      String key = entry.getKey();
+      Object value = entry.getValue();
+      if (!isPlainKey(key)) return false;
+      cursor.moveTo(depth, key);
+      List<String> docs = cursor.getDocs();
+      if (docs != null)
+        for (String doc : docs)
+          line().append(whitespace).append("# ").append(doc);
+      line().append(whitespace).append(key).append(':');
+      if (value instanceof ConfigurationSection) {
+        ConfigurationSection child = (ConfigurationSection) value;
+        if (child.getKeys(false).isEmpty()) out.append(" {}");
+        else if (!emitSection(child, 1 + depth)) return false;
+      } else if (value instanceof List) {
+        List<?> list = (List<?>) value;
+        if (lists == null) lists = Sets.newIdentityHashSet();
+        if (!lists.add(list)) return false;
+        if (list.isEmpty()) out.append(" []");
+        for (Object element : list) {
+          String string = format(element, whitespace.length() + 2);
+          if (string == null) return false;
+          line().append(whitespace).append("- ").append(string);
+        }
+      } else {
+        String string = format(value, whitespace.length() + key.length() + 2);
+        if (string == null) return false;
+        out.append(' ').append(string);
+      }
+    }
+    return true;
+  }
+
+  private @NonNull Appendable line() throws IOException {
+    if (started) out.append(lineSeparator);
+    started = true;
+    return out;
+  }
+
+  /**
+   * Returns the plain representation of {@code value} starting at {@code column}, or null
+   * if the dumper would not write it plain on a single line.
+   */
+  private static String format(Object value, int column) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Boolean)
+      return value.toString();
+    if (value instanceof Double || value instanceof Float) {
+      double number = ((Number) value).doubleValue();
+      if (Double.isNaN(number) || Double.isInfinite(number)) return null;
+      String string = value.toString();
+      // exponents are resolved differently across versions of the dumper
+      return string.indexOf('E') == -1 ? string : null;
+    }
+    if (value instanceof String) {
+      String string = (String) value;
+      if (!isPlainString(string)) return null;
+      // plain scalars exceeding the line width are folded at their spaces
+      if (column + string.length() > LINE_WIDTH && string.indexOf(' ') != -1) return null;
+      return string;
+    }
+    return null;
+  }
+
+  private static boolean isPlainKey(@NonNull String key) {
+    int length = key.length();
+    if (length == 0 || length >= MAX_KEY_LENGTH) return false;
+    if (!isLetter(key.charAt(0)) && key.charAt(0) != '_') return false;
+    if (key.charAt(length - 1) == ' ' || RESERVED_WORDS.contains(key)) return false;
+    for (int i = 1; i < length; ++i) {
+      char c = key.charAt(i);
+      if (!isLetter(c) && !isDigit(c) && c != '_' && c != ' ') return false;
+    }
+    return true;
+  }
+
+  private static boolean isPlainString(@NonNull String string) {
+    int length = string.length();
+    if (length == 0 || !isLetter(string.charAt(0))) return false;
+    if (string.charAt(length - 1) == ' ' || RESERVED_WORDS.contains(string)) return false;
+    for (int i = 1; i < length; ++i) {
+      char c = string.charAt(i);
+      if (!isLetter(c) && !isDigit(c) && " _.,'/()!?-+&%".indexOf(c) == -1) return false;
+    }
+    return true;
+  }
+
+  private static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static String stripCarriageReturn(@NonNull String line) {
+    int length = line.length();
+    return length != 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line;
+  }
+
+}
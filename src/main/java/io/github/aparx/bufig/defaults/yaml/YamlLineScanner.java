@@ -0,0 +1,156 @@
+package io.github.aparx.bufig.defaults.yaml;
+
+import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.CheckReturnValue;
+import io.github.aparx.bufig.defaults.yaml.results.YamlCommentLine;
+import io.github.aparx.bufig.defaults.yaml.results.YamlMappingLine;
+import io.github.aparx.bufig.processors.ContentScanner;
+import io.github.aparx.bufig.processors.results.ContentScan;
+import io.github.aparx.bufig.processors.results.LineCursor;
+import io.github.aparx.bufig.processors.results.ScannedLine;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Reader;
+import java.util.Iterator;
+
+/**
+ * Scanner tokenizing YAML lines using a hand-written lexer, which reads each line once
+ * without any regular expressions or intermediate matchers.
+ * <p>This scanner produces exactly the same tokens as a {@code RegexScanner} using the
+ * patterns of {@link YamlProcessors}: comment lines ({@code # content}) become a
+ * {@code YamlCommentLine}, mapping lines ({@code key: value}, where the key consists of
+ * words separated by spaces) become a {@code YamlMappingLine} and all other lines a plain
+ * {@code ScannedLine}.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 17:22
+ * @see YamlProcessors#newLineScanner()
+ * @since 1.0
+ */
+@CheckReturnValue
+public class YamlLineScanner<T extends YamlConfig> implements ContentScanner<T> {
+
+  @Override
+  public ContentScan scan(@NonNull T caller, @NonNull String content) {
+    Preconditions.checkNotNull(caller, "Caller must not be null");
+    Preconditions.checkNotNull(content, "Content must not be null");
+    return new ContentScan(content) {
+
+      @Override
+      public @NonNull Iterator<? extends ScannedLine> createProcess() {
+        return new LineIterator(cursor(), caller.options().indent());
+      }
+    };
+  }
+
+  @Override
+  public ContentScan scan(@NonNull T caller, @NonNull Reader reader) {
+    Preconditions.checkNotNull(caller, "Caller must not be null");
+    Preconditions.checkNotNull(reader, "Reader must not be null");
+    return new ContentScan(reader) {
+
+      @Override
+      public @NonNull Iterator<? extends ScannedLine> createProcess() {
+        return new LineIterator(cursor(), caller.options().indent());
+      }
+    };
+  }
+
+  /**
+   * Tokenizes {@code line}, whose leading spaces are divided by {@code indent} to determine
+   * the nest depth.
+   *
+   * @param index  the index of the line
+   * @param line   the line to tokenize, without line terminator
+   * @param indent the amount of spaces per nest depth
+   * @return the token of {@code line}
+   */
+  public static @NonNull ScannedLine tokenize(int index, @NonNull String line, int indent) {
+    int length = line.length();
+    int start = 0;
+    while (start < length && line.charAt(start) == ' ') ++start;
+    if (start == length) return new ScannedLine(index, line);
+    if (line.charAt(start) == '#') {
+      String content = scanComment(line, start + 1);
+      if (content != null)
+        return new YamlCommentLine(index, start / indent, line, content);
+      return new ScannedLine(index, line);
+    }
+    int colon = scanKey(line, start);
+    if (colon < 0) return new ScannedLine(index, line);
+    int valueStart = colon + 1;
+    while (valueStart < length && line.charAt(valueStart) == ' ') ++valueStart;
+    if (!isLineContent(line, valueStart)) return new ScannedLine(index, line);
+    return new YamlMappingLine(index, start / indent, line, line.substring(start, colon),
+        valueStart != length ? line.substring(valueStart) : null);
+  }
+
+  /**
+   * Returns the content of a comment starting at {@code offset} (after the number sign),
+   * omitting one leading space if it is followed by any other character.
+   */
+  private static @Nullable String scanComment(@NonNull String line, int offset) {
+    int length = line.length();
+    if (offset < length - 1 && line.charAt(offset) == ' ') ++offset;
+    if (offset == length || !isLineContent(line, offset)) return null;
+    return line.substring(offset);
+  }
+
+  /**
+   * Returns the index of the colon terminating the key starting at {@code offset}, being
+   * words separated by spaces, or -1 if the line is no mapping.
+   */
+  private static int scanKey(@NonNull String line, int offset) {
+    int length = line.length();
+    int cursor = offset;
+    for (; ; ) {
+      int wordStart = cursor;
+      while (cursor < length && isWordChar(line.charAt(cursor))) ++cursor;
+      if (cursor == wordStart || cursor == length) return -1;
+      char c = line.charAt(cursor);
+      if (c == ':') return cursor;
+      if (c != ' ') return -1;
+      while (cursor < length && line.charAt(cursor) == ' ') ++cursor;
+    }
+  }
+
+  /** Returns true if {@code c} is a word character, equivalent to {@code \w}. */
+  private static boolean isWordChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == '_';
+  }
+
+  /** Returns true if no character from {@code offset} on terminates a line. */
+  private static boolean isLineContent(@NonNull String line, int offset) {
+    for (int i = offset, n = line.length(); i < n; ++i) {
+      char c = line.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029')
+        return false;
+    }
+    return true;
+  }
+
+  private static final class LineIterator implements Iterator<ScannedLine> {
+
+    private final @NonNull LineCursor cursor;
+    private final int indent;
+
+    LineIterator(@NonNull LineCursor cursor, int indent) {
+      this.cursor = cursor;
+      this.indent = indent;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return cursor.hasNext();
+    }
+
+    @Override
+    public @NonNull ScannedLine next() {
+      int index = cursor.getIndex();
+      return tokenize(index, cursor.next(), indent);
+    }
+  }
+
+}
@@ -2,21 +2,21 @@ package io.github.aparx.bufig.defaults.yaml;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
-import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.DocCursor;
 import io.github.aparx.bufig.defaults.yaml.results.YamlCommentLine;
 import io.github.aparx.bufig.defaults.yaml.results.YamlMappingLine;
 import io.github.aparx.bufig.processors.ContentProcessor;
+import io.github.aparx.bufig.processors.ContentScanner;
 import io.github.aparx.bufig.processors.RegexScanner;
 import io.github.aparx.bufig.processors.results.ContentScan;
 import io.github.aparx.bufig.processors.results.ScannedLine;
 import lombok.experimental.UtilityClass;
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -55,15 +55,32 @@ YamlProcessors {
       SCANNER_LINE_FALLBACK = (ctx) -> new ScannedLine(ctx.getIndex(), ctx.getLine());
   // @formatter:on
 
-  private static final RegexScanner<YamlConfig> DEFAULT_SCANNER =
+  private static final RegexScanner<YamlConfig> REGEX_SCANNER =
       new RegexScanner<>(SCANNER_LINE_MATCHERS, SCANNER_LINE_FALLBACK);
 
+  private static final YamlLineScanner<YamlConfig> DEFAULT_SCANNER = new YamlLineScanner<>();
+
   private static final ContentProcessor<YamlConfig> DEFAULT_PROCESSOR =
       new YamlContentProcessor<>();
 
+  /**
+   * Returns the scanner matching lines against {@link #SCANNER_LINE_MATCHERS}, producing
+   * the same tokens as {@link #newLineScanner()} at a higher cost per line.
+   */
   @SuppressWarnings("unchecked")
   public static <T extends YamlConfig> RegexScanner<T> newScanner() {
-    return (RegexScanner<T>) DEFAULT_SCANNER;
+    return (RegexScanner<T>) REGEX_SCANNER;
+  }
+
+  /**
+   * Returns the scanner tokenizing lines using a hand-written lexer, which is the default
+   * scanner of {@code YamlConfig}.
+   *
+   * @see YamlLineScanner
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends YamlConfig> ContentScanner<T> newLineScanner() {
+    return (ContentScanner<T>) DEFAULT_SCANNER;
   }
 
   @SuppressWarnings("unchecked")
@@ -76,58 +93,60 @@ YamlProcessors {
     /** To not have a too large memory footprint */
     private static final int MAX_NEST_DEPTH = 100;
 
-    /** Initial buffer length for segments */
-    private static final int INITIAL_SEGMENT_BUFFER_LENGTH = MAX_NEST_DEPTH / 10;
+    /** Cached indentation, of which a prefix is appended per documentation line */
+    private static final String INDENTATION = " ".repeat(128);
 
-    private static String createCommentLine(String content) {
-      return "# " + content;
-    }
+    private static final String COMMENT_PREFIX = "# ";
 
-    private static String[] ensureNestDepthInArray(String[] array, int depth) {
-      if (depth < array.length) return array;
-      int newCapacity = 1 + Math.min((int) Math.ceil(1.75 * depth), MAX_NEST_DEPTH);
-      Preconditions.checkArgument(depth < newCapacity,
+    private static void checkNestDepth(int depth) {
+      Preconditions.checkArgument(depth <= MAX_NEST_DEPTH,
           "Depth {0} too large (max: {1})",
           new Object[]{depth, MAX_NEST_DEPTH});
-      String[] newArray = new String[newCapacity];
-      System.arraycopy(array, 0, newArray, 0, array.length);
-      return newArray;
+    }
+
+    private static void appendIndentation(StringBuilder builder, int width) {
+      for (; width > INDENTATION.length(); width -= INDENTATION.length())
+        builder.append(INDENTATION);
+      builder.append(INDENTATION, 0, width);
     }
 
     @Override
     public String save(@NonNull T caller, @NonNull ContentScan scan) {
       StringBuilder builder = new StringBuilder();
-      String[] segbuf = new String[INITIAL_SEGMENT_BUFFER_LENGTH];
+      DocCursor cursor = caller.newDocCursor();
       Iterator<? extends ScannedLine> process = scan.createProcess();
       final int indent = caller.options().indent();
+      final String lineSeparator = System.lineSeparator();
       while (process.hasNext()) {
         if (builder.length() != 0)
-          builder.append(System.lineSeparator());
+          builder.append(lineSeparator);
         ScannedLine line = process.next();
         if (line instanceof YamlMappingLine) {
           YamlMappingLine mapping = (YamlMappingLine) line;
           int nestDepth = mapping.getNestDepth();
-          segbuf = ensureNestDepthInArray(segbuf, nestDepth);
-          segbuf[nestDepth] = mapping.getKey();
-          String whitespace = " ".repeat(nestDepth * indent);
-          ConfigPath path = ConfigPath.of(Arrays.copyOfRange(segbuf, 0, 1 + nestDepth));
-          Arrays.stream(ArrayUtils.nullToEmpty(caller.getDocs(path)))
-              .map(x -> whitespace + createCommentLine(x))
-              .forEach(x -> builder.append(x).append(System.lineSeparator()));
+          checkNestDepth(nestDepth);
+          cursor.moveTo(nestDepth, mapping.getKey());
+          List<String> docs = cursor.getDocs();
+          if (docs != null) {
+            for (String doc : docs) {
+              appendIndentation(builder, nestDepth * indent);
+              builder.append(COMMENT_PREFIX).append(doc).append(lineSeparator);
+            }
+          }
         }
         builder.append(line.getLine());
       }
-
       return builder.toString();
     }
 
     @Override
     public String load(@NonNull T caller, @NonNull ContentScan scan) {
       StringBuilder builder = new StringBuilder();
-      String[] segbuf = new String[INITIAL_SEGMENT_BUFFER_LENGTH];
+      DocCursor cursor = caller.newDocCursor();
       boolean isHeaderArea = true;
       ArrayList<String> docs = new ArrayList<>();
       Iterator<? extends ScannedLine> process = scan.createProcess();
+      final String lineSeparator = System.lineSeparator();
       while (process.hasNext()) {
         ScannedLine line = process.next();
         if (line instanceof YamlCommentLine) {
@@ -135,18 +154,18 @@ YamlProcessors {
           continue;
         }
         if (builder.length() != 0)
-          builder.append(System.lineSeparator());
+          builder.append(lineSeparator);
         if (line instanceof YamlMappingLine) {
           YamlMappingLine mapping = (YamlMappingLine) line;
           int nestDepth = mapping.getNestDepth();
-          segbuf = ensureNestDepthInArray(segbuf, nestDepth);
-          segbuf[nestDepth] = mapping.getKey();
-          ConfigPath path = ConfigPath.of(Arrays.copyOfRange(segbuf, 0, 1 + nestDepth));
-          caller.setDocsIfAbsent(path, docs.toArray(String[]::new));
+          checkNestDepth(nestDepth);
+          cursor.moveTo(nestDepth, mapping.getKey());
+          cursor.setDocsIfAbsent(docs);
         } else if (isHeaderArea)
           docs.forEach(headerLine -> builder
-              .append(createCommentLine(headerLine))
-              .append(System.lineSeparator()));
+              .append(COMMENT_PREFIX)
+              .append(headerLine)
+              .append(lineSeparator));
         docs.clear();
         isHeaderArea = false;
         builder.append(line.getLine());
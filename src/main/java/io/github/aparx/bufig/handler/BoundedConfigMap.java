@@ -0,0 +1,197 @@
+package io.github.aparx.bufig.handler;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.github.aparx.bufig.AbstractConfig;
+import io.github.aparx.bufig.Config;
+import io.github.aparx.bufig.io.ConfigSaveQueue;
+import lombok.Getter;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Config handler holding a bounded amount of configs, intended for configs created per
+ * entity, such as per player.
+ * <p>Configs are evicted once the maximum size is exceeded, least recently used first,
+ * or once they have not been accessed for the idle timeout. Evicted configs are saved in
+ * the background if they are dirty or a write-behind save of them is pending. Until that
+ * save has completed, a config requested again is put back as is, rather than being
+ * loaded from a possibly outdated file.
+ * <p>Since {@code ConfigProxy} and {@code ConfigObject} instances resolve their config
+ * through {@link #getOrCreate(String)} on each access, evicted configs are loaded again
+ * transparently.
+ * <p>Idle configs are evicted lazily during other operations on this handler. To evict
+ * them in the absence of any activity, {@link #cleanUp()} may be called periodically.
+ *
+ * @param <T> the type of config
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-29 11:20
+ * @since 1.0
+ */
+public class BoundedConfigMap<T extends Config> extends ConfigMap<T> {
+
+  @Getter
+  private final @NonNegative long maximumSize;
+
+  @Getter
+  private final @Nullable Duration idleTimeout;
+
+  private final @NonNull Cache<@NonNull String, @NonNull T> cache;
+
+  /** Evicted configs, which are being saved and may still be recovered. */
+  private final Map<@NonNull String, @NonNull T> evicted = new ConcurrentHashMap<>();
+
+  private final Set<@NonNull CompletableFuture<?>> evictionSaves =
+      ConcurrentHashMap.newKeySet();
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final LongAdder evictionCount = new LongAdder();
+
+  public BoundedConfigMap(
+      @NonNull Function<@NonNull String, @NonNull ? extends T> defaultFactory,
+      @NonNegative long maximumSize,
+      @Nullable Duration idleTimeout) {
+    this(defaultFactory, ForkJoinPool.commonPool(), maximumSize, idleTimeout);
+  }
+
+  public BoundedConfigMap(
+      @NonNull Function<@NonNull String, @NonNull ? extends T> defaultFactory,
+      @NonNull Executor executor,
+      @NonNegative long maximumSize,
+      @Nullable Duration idleTimeout) {
+    this(defaultFactory, executor, maximumSize, idleTimeout,
+        createCache(maximumSize, idleTimeout));
+  }
+
+  private BoundedConfigMap(
+      @NonNull Function<@NonNull String, @NonNull ? extends T> defaultFactory,
+      @NonNull Executor executor,
+      @NonNegative long maximumSize,
+      @Nullable Duration idleTimeout,
+      @NonNull CacheHolder<T> holder) {
+    super(holder.cache.asMap(), defaultFactory, executor);
+    this.maximumSize = maximumSize;
+    this.idleTimeout = idleTimeout;
+    this.cache = holder.cache;
+    holder.handler = this;
+  }
+
+  /**
+   * Saves all dirty configs, including evicted configs whose save is still pending or has
+   * failed, which would otherwise only be saved once they are accessed again.
+   *
+   * @return the future completed once all saves have completed
+   */
+  @Override
+  public @NonNull CompletableFuture<Void> flush() {
+    // submitted first, such that saves written behind are flushed along with the others
+    evicted.forEach(this::saveEvicted);
+    CompletableFuture<Void> flushed = super.flush();
+    return CompletableFuture.allOf(flushed, CompletableFuture.allOf(
+        evictionSaves.toArray(CompletableFuture[]::new)));
+  }
+
+  /** Evicts all configs that have been idle for longer than the idle timeout. */
+  public void cleanUp() {
+    cache.cleanUp();
+  }
+
+  /** Returns the amount of {@code getOrCreate} calls that found a contained config. */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /** Returns the amount of {@code getOrCreate} calls that had to create or load a config. */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  @Override
+  protected @Nullable T recover(@NonNull String configId) {
+    return evicted.remove(configId);
+  }
+
+  @Override
+  protected void onLookup(@NonNull String configId, boolean hit) {
+    if (hit) hitCount.increment();
+    else missCount.increment();
+  }
+
+  private void onRemoval(@NonNull RemovalNotification<String, T> notification) {
+    if (!notification.wasEvicted()) return;
+    String configId = notification.getKey();
+    T config = notification.getValue();
+    if (configId == null || config == null) return;
+    evictionCount.increment();
+    if (!config.isDirty() && !isSavePending(config)) return;
+    evicted.put(configId, config);
+    saveEvicted(configId, config);
+  }
+
+  private void saveEvicted(@NonNull String configId, @NonNull T config) {
+    CompletableFuture<Void> saved = saveAsync(config);
+    evictionSaves.add(saved);
+    saved.whenComplete((ignored, throwable) -> {
+      evictionSaves.remove(saved);
+      // a config failing to save is kept, such that it is recovered on the next access
+      if (throwable == null) evicted.remove(configId, config);
+    });
+  }
+
+  /** Returns true if {@code config} is not dirty only due to a write-behind save. */
+  private static boolean isSavePending(@NonNull Config config) {
+    if (!(config instanceof AbstractConfig)) return false;
+    ConfigSaveQueue queue = ((AbstractConfig) config).getSaveQueue();
+    return queue != null && queue.isPending(config.getFile().toPath());
+  }
+
+  private @NonNull CompletableFuture<Void> saveAsync(@NonNull T config) {
+    try {
+      return CompletableFuture.supplyAsync(config::saveAsync, getExecutor())
+          .thenCompose((x) -> x);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static <T extends Config> CacheHolder<T> createCache(
+      @NonNegative long maximumSize,
+      @Nullable Duration idleTimeout) {
+    Preconditions.checkArgument(maximumSize >= 0, "Maximum size must not be negative");
+    Preconditions.checkArgument(idleTimeout == null || !idleTimeout.isNegative(),
+        "Idle timeout must not be negative");
+    CacheHolder<T> holder = new CacheHolder<>();
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(maximumSize);
+    if (idleTimeout != null)
+      builder.expireAfterAccess(idleTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    holder.cache = builder.removalListener((RemovalNotification<String, T> notification) -> {
+      BoundedConfigMap<T> handler = holder.handler;
+      if (handler != null) handler.onRemoval(notification);
+    }).build();
+    return holder;
+  }
+
+  /** Allows the removal listener to refer to the handler before it is constructed. */
+  private static final class CacheHolder<T extends Config> {
+    private Cache<@NonNull String, @NonNull T> cache;
+    private volatile BoundedConfigMap<T> handler;
+  }
+
+}
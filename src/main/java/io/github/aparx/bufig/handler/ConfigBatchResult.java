@@ -0,0 +1,48 @@
+package io.github.aparx.bufig.handler;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of a bulk operation on a {@code ConfigHandler}, listing the configs for which
+ * the operation succeeded and the failure of every other config.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-28 19:40
+ * @see ConfigHandler#loadAll(java.util.Collection)
+ * @see ConfigHandler#saveAll(boolean)
+ * @see ConfigHandler#reloadAll()
+ * @since 1.0
+ */
+@Getter
+public final class ConfigBatchResult {
+
+  private final @NonNull Set<@NonNull String> succeeded;
+
+  private final @NonNull Map<@NonNull String, @NonNull Throwable> failures;
+
+  public ConfigBatchResult(
+      @NonNull Set<@NonNull String> succeeded,
+      @NonNull Map<@NonNull String, @NonNull Throwable> failures) {
+    Preconditions.checkNotNull(succeeded, "Succeeded must not be null");
+    Preconditions.checkNotNull(failures, "Failures must not be null");
+    this.succeeded = Set.copyOf(succeeded);
+    this.failures = Map.copyOf(failures);
+  }
+
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigBatchResult{" +
+        "succeeded=" + succeeded.size() +
+        ", failures=" + failures +
+        '}';
+  }
+}
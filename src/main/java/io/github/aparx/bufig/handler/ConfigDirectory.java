@@ -0,0 +1,133 @@
+package io.github.aparx.bufig.handler;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Directory of config files, mapping each file to an identifier derived from its path
+ * relative to the directory and vice versa.
+ * <p>The identifier of a file is its relative path, separated by {@code '/'} and without
+ * the extension. For example, the file {@code arenas/desert.yml} has the identifier
+ * {@code arenas/desert}.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-29 14:02
+ * @see DirectoryConfigMap
+ * @since 1.0
+ */
+@Getter
+public final class ConfigDirectory {
+
+  public static final char ID_SEPARATOR = '/';
+
+  private final @NonNull Path root;
+
+  private final @NonNull String extension;
+
+  private final @NonNull String glob;
+
+  private final boolean recursive;
+
+  /**
+   * @param root      the directory containing the config files
+   * @param extension the extension of config files, including the dot
+   * @param glob      the glob pattern matched against the relative path of each file
+   * @param recursive true to scan subdirectories as well
+   * @see FileSystem#getPathMatcher(String)
+   */
+  public ConfigDirectory(
+      @NonNull Path root,
+      @NonNull String extension,
+      @NonNull String glob,
+      boolean recursive) {
+    Preconditions.checkNotNull(root, "Root must not be null");
+    Preconditions.checkNotNull(extension, "Extension must not be null");
+    Preconditions.checkNotNull(glob, "Glob must not be null");
+    this.root = root;
+    this.extension = extension;
+    this.glob = glob;
+    this.recursive = recursive;
+  }
+
+  /** Returns a directory matching all files with {@code extension}. */
+  public static ConfigDirectory of(
+      @NonNull Path root, @NonNull String extension, boolean recursive) {
+    String glob = (recursive ? "**" : "*") + extension;
+    return new ConfigDirectory(root, extension, glob, recursive);
+  }
+
+  public @NonNull Path resolve(@NonNull String configId) {
+    Preconditions.checkNotNull(configId, "ID must not be null");
+    return root.resolve(configId + extension);
+  }
+
+  /**
+   * Returns the identifier of {@code file}, which must be within this directory.
+   *
+   * @param file the file within this directory
+   * @return the identifier of {@code file}
+   */
+  public @NonNull String identify(@NonNull Path file) {
+    Preconditions.checkNotNull(file, "File must not be null");
+    Path relative = root.relativize(file);
+    StringBuilder builder = new StringBuilder();
+    for (Path segment : relative) {
+      if (builder.length() != 0) builder.append(ID_SEPARATOR);
+      builder.append(segment);
+    }
+    if (!extension.isEmpty() && builder.length() > extension.length()
+        && builder.lastIndexOf(extension) == builder.length() - extension.length())
+      builder.setLength(builder.length() - extension.length());
+    return builder.toString();
+  }
+
+  /**
+   * Streams through all regular files within this directory matching the glob, passing
+   * the identifier of each file to {@code action}. Files are visited one at a time, such
+   * that large directories are never listed into a single array.
+   *
+   * @param action the action invoked with the identifier of each file
+   * @throws IOException if this directory cannot be read
+   */
+  public void scan(@NonNull Consumer<@NonNull String> action) throws IOException {
+    Preconditions.checkNotNull(action, "Action must not be null");
+    if (!Files.isDirectory(root)) return;
+    PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + glob);
+    if (!recursive) {
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+        for (Path file : stream)
+          visit(file, matcher, action);
+      }
+      return;
+    }
+    try (Stream<Path> stream = Files.walk(root)) {
+      stream.forEach((file) -> visit(file, matcher, action));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void visit(
+      @NonNull Path file,
+      @NonNull PathMatcher matcher,
+      @NonNull Consumer<@NonNull String> action) {
+    if (matcher.matches(root.relativize(file)) && Files.isRegularFile(file))
+      action.accept(identify(file));
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigDirectory{" +
+        "root=" + root +
+        ", glob='" + glob + '\'' +
+        ", recursive=" + recursive +
+        '}';
+  }
+}
@@ -4,13 +4,20 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.CheckReturnValue;
 import io.github.aparx.bufig.Config;
 import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.io.ConfigIndex;
+import io.github.aparx.bufig.io.ConfigSaveQueue;
 import org.bukkit.plugin.Plugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -49,6 +56,71 @@ public interface ConfigHandler<T extends Config> extends Iterable<T> {
   @CanIgnoreReturnValue
   @NonNull T getOrCreate(@NonNull String configId);
 
+  /**
+   * Returns the config mapped to {@code configId} or creates and loads it in the
+   * background, such that the calling thread never reads or parses any file.
+   * <p>Concurrent callers for the same identifier share the same in-flight load.
+   *
+   * @param configId the identifier of the config
+   * @param factory  the factory creating the config if it does not exist yet
+   * @return the future completed with the loaded config
+   */
+  @CanIgnoreReturnValue
+  @NonNull CompletableFuture<T> getOrCreateAsync(
+      @NonNull String configId,
+      @NonNull Function<@NonNull String, @NonNull ? extends T> factory);
+
+  @CanIgnoreReturnValue
+  @NonNull CompletableFuture<T> getOrCreateAsync(@NonNull String configId);
+
+  /**
+   * Loads {@code config} in the background and adds it to this handler once it is loaded.
+   * <p>If a config with the same identifier is already contained or currently loading,
+   * {@code config} is discarded and the future of the existing config is returned.
+   *
+   * @param config the config to load and add
+   * @return the future completed with the contained config
+   */
+  @CanIgnoreReturnValue
+  @NonNull CompletableFuture<T> loadAsync(@NonNull T config);
+
+  /**
+   * Gets or creates and loads the configs of all given identifiers in parallel.
+   *
+   * @param configIds the identifiers of the configs to load
+   * @return the future completed once every config is either loaded or has failed
+   * @see #getOrCreateAsync(String)
+   */
+  @NonNull CompletableFuture<ConfigBatchResult> loadAll(
+      @NonNull Collection<@NonNull String> configIds);
+
+  /**
+   * Loads all configs within this handler again in parallel. Configs must not be accessed
+   * until the returned future has completed.
+   *
+   * @return the future completed once every config is either loaded or has failed
+   */
+  @NonNull CompletableFuture<ConfigBatchResult> reloadAll();
+
+  /**
+   * Saves all configs within this handler in parallel.
+   * <p>If {@code groupSync} is true, all files are written as one batch and forced
+   * concurrently, followed by one force per directory, rather than forcing every file and
+   * its directory one after another. Each file is still forced on its own, as there is no
+   * portable way to make many files durable with a single call.
+   *
+   * @param groupSync true to make all writes durable together
+   * @return the future completed once every config is either saved or has failed
+   * @see io.github.aparx.bufig.io.ConfigWriteBatch
+   */
+  @CanIgnoreReturnValue
+  @NonNull CompletableFuture<ConfigBatchResult> saveAll(boolean groupSync);
+
+  @CanIgnoreReturnValue
+  default @NonNull CompletableFuture<ConfigBatchResult> saveAll() {
+    return saveAll(false);
+  }
+
   /**
    * Returns a backed version of this handler, where configs are mapped to their identifier.
    * Changes made within the returning map will have an effect on this handler and vice-versa.
@@ -57,6 +129,57 @@ public interface ConfigHandler<T extends Config> extends Iterable<T> {
    */
   @NonNull Map<@NonNull String, @NonNull T> asMap();
 
+  @Nullable ConfigSaveQueue getSaveQueue();
+
+  /**
+   * Sets the queue of write-behind saves of all configs within this handler, including
+   * configs added later on. Configs that do not support write-behind saving are saved
+   * synchronously as before.
+   *
+   * @param saveQueue the queue, or null to save synchronously
+   */
+  void setSaveQueue(@Nullable ConfigSaveQueue saveQueue);
+
+  @Nullable ConfigIndex getIndex();
+
+  /**
+   * Sets the index of snapshots all configs within this handler, including configs added
+   * later on, are restored from when their files are unchanged. The index is written
+   * whenever this handler is flushed.
+   *
+   * @param index the index, or null to always parse config files
+   */
+  void setIndex(@Nullable ConfigIndex index);
+
+  /**
+   * Saves all dirty configs within this handler and executes all pending writes of the
+   * save queue immediately, then writes the index if set. Intended to be joined on
+   * shutdown, such that all configs are written once the returned future completes.
+   *
+   * @return the future completed once all configs have been written
+   */
+  @CanIgnoreReturnValue
+  @NonNull CompletableFuture<Void> flush();
+
+
+  /**
+   * Creates and starts a watcher, which reloads configs of this handler whose files have
+   * been changed externally. The watcher must be closed once no longer needed.
+   *
+   * @param debounce      the duration without events after which a changed file is checked
+   * @param applyExecutor the executor reloading configs, such as one running tasks on the
+   *                      main thread of the server
+   * @return the started watcher
+   * @throws IOException if the watch service cannot be created
+   * @see ConfigWatcher
+   */
+  default @NonNull ConfigWatcher watch(
+      @NonNull Duration debounce,
+      @NonNull Executor applyExecutor) throws IOException {
+    ConfigWatcher watcher = new ConfigWatcher(this, debounce, applyExecutor);
+    watcher.start();
+    return watcher;
+  }
 
   static ConfigHandler<? super YamlConfig> of(@NonNull Plugin plugin) {
     return ConfigHandlers.ofDefault(plugin);
@@ -5,9 +5,12 @@ import io.github.aparx.bufig.Config;
 import io.github.aparx.bufig.defaults.yaml.YamlConfig;
 import lombok.experimental.UtilityClass;
 import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -24,6 +27,35 @@ public final class ConfigHandlers {
     return new ConfigMap<>(configFactory);
   }
 
+  /**
+   * Returns a handler holding at most {@code maximumSize} configs, evicting the least
+   * recently used and idle configs, intended for configs created per entity.
+   *
+   * @see BoundedConfigMap
+   */
+  public static <T extends Config> ConfigHandler<T> ofBounded(
+      @NonNull Function<@NonNull String, @NonNull ? extends T> configFactory,
+      @NonNegative long maximumSize,
+      @Nullable Duration idleTimeout) {
+    return new BoundedConfigMap<>(configFactory, maximumSize, idleTimeout);
+  }
+
+  /**
+   * Returns a handler of all files with {@code extension} within the data folder of
+   * {@code plugin}, which can be scanned and prewarmed.
+   *
+   * @see DirectoryConfigMap
+   */
+  public static <T extends Config> DirectoryConfigMap<T> ofDirectory(
+      @NonNull Plugin plugin,
+      @NonNull String extension,
+      boolean recursive,
+      @NonNull BiFunction<@NonNull String, @NonNull File, @NonNull ? extends T> configFactory) {
+    ConfigDirectory directory =
+        ConfigDirectory.of(plugin.getDataFolder().toPath(), extension, recursive);
+    return new DirectoryConfigMap<>(directory, configFactory);
+  }
+
   public static <T extends YamlConfig> ConfigHandler<T> ofIdAsFileName(
       @NonNull Plugin plugin,
       @NonNull BiFunction<@NonNull String, @NonNull File, @NonNull ? extends T> configFactory) {
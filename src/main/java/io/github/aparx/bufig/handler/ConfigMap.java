@@ -1,16 +1,20 @@
 package io.github.aparx.bufig.handler;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import io.github.aparx.bufig.AbstractConfig;
 import io.github.aparx.bufig.Config;
+import io.github.aparx.bufig.io.ConfigIndex;
+import io.github.aparx.bufig.io.ConfigSaveQueue;
+import io.github.aparx.bufig.io.ConfigWriteBatch;
+import lombok.Getter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * @author aparx (Vinzent Z.)
@@ -23,10 +27,51 @@ public class ConfigMap<T extends Config> implements ConfigHandler<T> {
 
   private final @NonNull Function<@NonNull String, @NonNull ? extends T> defaultFactory;
 
+  /**
+   * Loads currently in-flight, which are removed before they are completed, such that
+   * callers observing a failed load can load the config again.
+   */
+  private final @NonNull Map<@NonNull String, @NonNull CompletableFuture<T>> loading =
+      new ConcurrentHashMap<>();
+
+  /** The identifiers of the configs being loaded by the current thread. */
+  private final @NonNull ThreadLocal<Set<String>> loadingByThread =
+      ThreadLocal.withInitial(HashSet::new);
+
+  /** The executor of asynchronous loads and bulk operations. */
+  private final @NonNull Executor executor;
+
+  @Getter
+  private volatile @Nullable ConfigSaveQueue saveQueue;
+
+  @Getter
+  private volatile @Nullable ConfigIndex index;
+
   public ConfigMap(@NonNull Function<@NonNull String, @NonNull ? extends T> defaultFactory) {
+    this(defaultFactory, ForkJoinPool.commonPool());
+  }
+
+  public ConfigMap(
+      @NonNull Function<@NonNull String, @NonNull ? extends T> defaultFactory,
+      @NonNull Executor executor) {
+    this(new ConcurrentHashMap<>(), defaultFactory, executor);
+  }
+
+  /**
+   * @param map            the backing map, which must be safe for concurrent use
+   * @param defaultFactory the factory used to create configs not yet contained
+   * @param executor       the executor of asynchronous loads and bulk operations
+   */
+  protected ConfigMap(
+      @NonNull Map<@NonNull String, @NonNull T> map,
+      @NonNull Function<@NonNull String, @NonNull ? extends T> defaultFactory,
+      @NonNull Executor executor) {
+    Preconditions.checkNotNull(map, "Map must not be null");
     Preconditions.checkNotNull(defaultFactory, "Factory must not be null");
-    this.map = new ConcurrentHashMap<>(); // TODO move to a separate constructor (?)
+    Preconditions.checkNotNull(executor, "Executor must not be null");
+    this.map = map;
     this.defaultFactory = defaultFactory;
+    this.executor = executor;
   }
 
   @Override
@@ -56,7 +101,9 @@ public class ConfigMap<T extends Config> implements ConfigHandler<T> {
   @Override
   public boolean add(@NonNull T config) {
     Preconditions.checkNotNull(config, "Config must not be null");
-    return map.putIfAbsent(config.getId(), config) == null;
+    if (map.putIfAbsent(config.getId(), config) != null) return false;
+    applySettings(config);
+    return true;
   }
 
   @Override
@@ -78,12 +125,16 @@ public class ConfigMap<T extends Config> implements ConfigHandler<T> {
       @NonNull Function<@NonNull String, @NonNull ? extends T> factory) {
     Preconditions.checkNotNull(configId, "ID must not be null");
     Preconditions.checkNotNull(factory, "Factory must not be null");
-    return Objects.requireNonNull(map.computeIfAbsent(configId, (id) -> {
-      T config = factory.apply(id);
-      Objects.requireNonNull(config, "Config must not be null");
-      config.load();
-      return config;
-    }));
+    T config = map.get(configId);
+    onLookup(configId, config != null);
+    if (config != null) return config;
+    try {
+      // loads on the calling thread, unless another thread is already loading
+      return load(configId, () -> factory.apply(configId), null).join();
+    } catch (CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
   }
 
   @Override
@@ -91,13 +142,232 @@ public class ConfigMap<T extends Config> implements ConfigHandler<T> {
     return getOrCreate(configId, defaultFactory);
   }
 
+  @Override
+  public @NonNull CompletableFuture<T> getOrCreateAsync(
+      @NonNull String configId,
+      @NonNull Function<@NonNull String, @NonNull ? extends T> factory) {
+    Preconditions.checkNotNull(configId, "ID must not be null");
+    Preconditions.checkNotNull(factory, "Factory must not be null");
+    T config = map.get(configId);
+    onLookup(configId, config != null);
+    if (config != null) return CompletableFuture.completedFuture(config);
+    return load(configId, () -> factory.apply(configId), executor);
+  }
+
+  @Override
+  public @NonNull CompletableFuture<T> getOrCreateAsync(@NonNull String configId) {
+    return getOrCreateAsync(configId, defaultFactory);
+  }
+
+  @Override
+  public @NonNull CompletableFuture<T> loadAsync(@NonNull T config) {
+    Preconditions.checkNotNull(config, "Config must not be null");
+    return load(config.getId(), () -> config, executor);
+  }
+
+  @Override
+  public @NonNull CompletableFuture<ConfigBatchResult> loadAll(
+      @NonNull Collection<@NonNull String> configIds) {
+    Preconditions.checkNotNull(configIds, "IDs must not be null");
+    Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+    for (String configId : configIds) {
+      Preconditions.checkNotNull(configId, "ID must not be null");
+      futures.put(configId, load(configId, () -> defaultFactory.apply(configId), executor));
+    }
+    return collect(futures);
+  }
+
+  @Override
+  public @NonNull CompletableFuture<ConfigBatchResult> reloadAll() {
+    Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+    for (T config : map.values())
+      futures.put(config.getId(), supplyAsync(() -> {
+        config.load();
+        return config;
+      }));
+    return collect(futures);
+  }
+
+  @Override
+  public @NonNull CompletableFuture<ConfigBatchResult> saveAll(boolean groupSync) {
+    Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+    if (!groupSync) {
+      for (T config : map.values())
+        futures.put(config.getId(), supplyAsync(config::saveAsync).thenCompose((x) -> x));
+      return collect(futures);
+    }
+    // serialize all configs in parallel first, then commit their contents as one batch
+    ConfigWriteBatch batch = new ConfigWriteBatch(executor);
+    Map<String, CompletableFuture<CompletableFuture<Void>>> prepared = new LinkedHashMap<>();
+    for (T config : map.values())
+      prepared.put(config.getId(), supplyAsync(() -> config instanceof AbstractConfig
+          ? ((AbstractConfig) config).saveTo(batch)
+          : config.saveAsync()));
+    CompletableFuture<?> committed = CompletableFuture
+        .allOf(prepared.values().toArray(CompletableFuture[]::new))
+        .handle((ignored, throwable) -> null)
+        .thenCompose((ignored) -> supplyAsync(() -> {
+          batch.commit();
+          return null;
+        }));
+    prepared.forEach((configId, future) -> futures.put(configId,
+        committed.thenCompose((ignored) -> future.thenCompose((x) -> x))));
+    return collect(futures);
+  }
+
   @Override
   public @NonNull Map<@NonNull String, @NonNull T> asMap() {
     return map;
   }
 
+  @Override
+  public void setSaveQueue(@Nullable ConfigSaveQueue saveQueue) {
+    this.saveQueue = saveQueue;
+    map.values().forEach(this::applySettings);
+  }
+
+  @Override
+  public void setIndex(@Nullable ConfigIndex index) {
+    this.index = index;
+    map.values().forEach(this::applySettings);
+  }
+
+  @Override
+  public @NonNull CompletableFuture<Void> flush() {
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (T config : map.values())
+      if (config.isDirty()) futures.add(config.saveAsync());
+    ConfigSaveQueue queue = saveQueue;
+    if (queue != null) futures.add(queue.flush());
+    CompletableFuture<Void> flushed =
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    ConfigIndex index = this.index;
+    if (index == null) return flushed;
+    // created on the calling thread, which is the one modifying the configs
+    index.createSnapshots();
+    return flushed.whenComplete((ignored, throwable) -> index.trySave());
+  }
+
   @Override
   public @NonNull Iterator<T> iterator() {
     return map.values().iterator();
   }
+
+  /**
+   * Returns the contained config of {@code configId}, the in-flight load of it, or starts
+   * a new load using {@code executor}, or the calling thread if {@code executor} is null.
+   * Configs are created and loaded outside any map lock and only become visible within
+   * this handler once they are loaded.
+   *
+   * @throws IllegalStateException if the calling thread is loading {@code configId}
+   *                               itself, as waiting on that load would never finish
+   */
+  private @NonNull CompletableFuture<T> load(
+      @NonNull String configId,
+      @NonNull Supplier<@NonNull ? extends T> factory,
+      @Nullable Executor executor) {
+    T contained = map.get(configId);
+    if (contained != null) return CompletableFuture.completedFuture(contained);
+    CompletableFuture<T> promise = new CompletableFuture<>();
+    CompletableFuture<T> inFlight = loading.putIfAbsent(configId, promise);
+    if (inFlight != null) {
+      Preconditions.checkState(!loadingByThread.get().contains(configId),
+          "Recursive load of config {0}", configId);
+      return inFlight;
+    }
+    Runnable task = () -> {
+      Set<String> loadingIds = loadingByThread.get();
+      loadingIds.add(configId);
+      T config = null;
+      Throwable failure = null;
+      try {
+        config = map.get(configId);
+        if (config == null) {
+          config = recover(configId);
+          if (config == null) {
+            config = Objects.requireNonNull(factory.get(), "Config must not be null");
+            applySettings(config);
+            config.load();
+          }
+          T previous = map.putIfAbsent(configId, config);
+          if (previous != null) config = previous;
+        }
+      } catch (Throwable t) {
+        failure = t;
+      } finally {
+        loadingIds.remove(configId);
+        loading.remove(configId, promise);
+      }
+      if (failure != null) promise.completeExceptionally(failure);
+      else promise.complete(config);
+    };
+    if (executor == null) task.run();
+    else {
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        loading.remove(configId, promise);
+        promise.completeExceptionally(e);
+      }
+    }
+    return promise;
+  }
+
+  /**
+   * Called whenever {@code getOrCreate} or {@code getOrCreateAsync} looked up a config.
+   *
+   * @param configId the identifier of the config looked up
+   * @param hit      true if the config was contained, false if it has to be created or
+   *                 loaded
+   */
+  protected void onLookup(@NonNull String configId, boolean hit) {}
+
+  /**
+   * Returns a previously created config of {@code configId}, which is not contained
+   * anymore but still valid, such that it is put back instead of being loaded again.
+   *
+   * @param configId the identifier of the missing config
+   * @return the config to put back, or null to create and load a new config
+   */
+  protected @Nullable T recover(@NonNull String configId) {
+    return null;
+  }
+
+  protected @NonNull Executor getExecutor() {
+    return executor;
+  }
+
+  private <R> @NonNull CompletableFuture<R> supplyAsync(@NonNull Supplier<R> supplier) {
+    try {
+      return CompletableFuture.supplyAsync(supplier, executor);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  static @NonNull CompletableFuture<ConfigBatchResult> collect(
+      @NonNull Map<@NonNull String, @NonNull CompletableFuture<?>> futures) {
+    return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+        .handle((ignored, throwable) -> {
+          Set<String> succeeded = new HashSet<>();
+          Map<String, Throwable> failures = new HashMap<>();
+          futures.forEach((configId, future) -> {
+            try {
+              future.join();
+              succeeded.add(configId);
+            } catch (CompletionException e) {
+              failures.put(configId, e.getCause() != null ? e.getCause() : e);
+            } catch (CancellationException e) {
+              failures.put(configId, e);
+            }
+          });
+          return new ConfigBatchResult(succeeded, failures);
+        });
+  }
+
+  private void applySettings(@NonNull Config config) {
+    if (!(config instanceof AbstractConfig)) return;
+    ((AbstractConfig) config).setSaveQueue(saveQueue);
+    ((AbstractConfig) config).setIndex(index);
+  }
 }
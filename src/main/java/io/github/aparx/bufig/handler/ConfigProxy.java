@@ -2,6 +2,7 @@ package io.github.aparx.bufig.handler;
 
 import com.google.common.base.Preconditions;
 import io.github.aparx.bufig.Config;
+import io.github.aparx.bufig.ConfigKey;
 import io.github.aparx.bufig.ConfigPath;
 import io.github.aparx.bufig.ConfigPaths;
 import io.github.aparx.bufig.ConfigSection;
@@ -20,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -88,6 +90,21 @@ public class ConfigProxy implements Config {
     getConfig().save();
   }
 
+  @Override
+  public CompletableFuture<Void> saveAsync() {
+    return getConfig().saveAsync();
+  }
+
+  @Override
+  public boolean saveIfDirty() {
+    return getConfig().saveIfDirty();
+  }
+
+  @Override
+  public boolean isDirty() {
+    return getConfig().isDirty();
+  }
+
   @Override
   public String saveToString() {
     return getConfig().saveToString();
@@ -103,6 +120,11 @@ public class ConfigProxy implements Config {
     getConfig().loadFromString(contents);
   }
 
+  @Override
+  public int getGeneration() {
+    return getConfig().getGeneration();
+  }
+
   @Override
   public @NonNull ConfigurationSection getSection() {
     return getConfig().getSection();
@@ -233,6 +255,12 @@ public class ConfigProxy implements Config {
     return getConfig().isSection(createOffsetPath(path));
   }
 
+  @Override
+  public <T> @NonNull ConfigKey<T> createKey(
+      @NonNull ConfigPath path, ConfigKey.@NonNull Codec<T> codec) {
+    return ConfigKey.of(this, createOffsetPath(path), codec);
+  }
+
   @Override
   public Set<String> getKeys(boolean deep) {
     return getConfig().getKeys(deep);
@@ -383,6 +411,146 @@ public class ConfigProxy implements Config {
     return getConfig().isVector(createOffsetPath(path));
   }
 
+  @Override
+  public String getString(@NonNull ConfigPath path) {
+    return getConfig().getString(createOffsetPath(path));
+  }
+
+  @Override
+  public String getString(@NonNull ConfigPath path, String def) {
+    return getConfig().getString(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isString(@NonNull ConfigPath path) {
+    return getConfig().isString(createOffsetPath(path));
+  }
+
+  @Override
+  public int getInt(@NonNull ConfigPath path) {
+    return getConfig().getInt(createOffsetPath(path));
+  }
+
+  @Override
+  public int getInt(@NonNull ConfigPath path, int def) {
+    return getConfig().getInt(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isInt(@NonNull ConfigPath path) {
+    return getConfig().isInt(createOffsetPath(path));
+  }
+
+  @Override
+  public double getDouble(@NonNull ConfigPath path) {
+    return getConfig().getDouble(createOffsetPath(path));
+  }
+
+  @Override
+  public double getDouble(@NonNull ConfigPath path, double def) {
+    return getConfig().getDouble(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isDouble(@NonNull ConfigPath path) {
+    return getConfig().isDouble(createOffsetPath(path));
+  }
+
+  @Override
+  public long getLong(@NonNull ConfigPath path) {
+    return getConfig().getLong(createOffsetPath(path));
+  }
+
+  @Override
+  public long getLong(@NonNull ConfigPath path, long def) {
+    return getConfig().getLong(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isLong(@NonNull ConfigPath path) {
+    return getConfig().isLong(createOffsetPath(path));
+  }
+
+  @Override
+  public boolean getBoolean(@NonNull ConfigPath path) {
+    return getConfig().getBoolean(createOffsetPath(path));
+  }
+
+  @Override
+  public boolean getBoolean(@NonNull ConfigPath path, boolean def) {
+    return getConfig().getBoolean(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isBoolean(@NonNull ConfigPath path) {
+    return getConfig().isBoolean(createOffsetPath(path));
+  }
+
+  @Override
+  public List<?> getList(@NonNull ConfigPath path) {
+    return getConfig().getList(createOffsetPath(path));
+  }
+
+  @Override
+  public List<?> getList(@NonNull ConfigPath path, List<?> def) {
+    return getConfig().getList(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isList(@NonNull ConfigPath path) {
+    return getConfig().isList(createOffsetPath(path));
+  }
+
+  @Override
+  public List<Map<?, ?>> getMapList(@NonNull ConfigPath path) {
+    return getConfig().getMapList(createOffsetPath(path));
+  }
+
+  @Override
+  public Color getColor(@NonNull ConfigPath path) {
+    return getConfig().getColor(createOffsetPath(path));
+  }
+
+  @Override
+  public Color getColor(@NonNull ConfigPath path, Color def) {
+    return getConfig().getColor(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isColor(@NonNull ConfigPath path) {
+    return getConfig().isColor(createOffsetPath(path));
+  }
+
+  @Override
+  public ItemStack getItemStack(@NonNull ConfigPath path) {
+    return getConfig().getItemStack(createOffsetPath(path));
+  }
+
+  @Override
+  public ItemStack getItemStack(@NonNull ConfigPath path, ItemStack def) {
+    return getConfig().getItemStack(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isItemStack(@NonNull ConfigPath path) {
+    return getConfig().isItemStack(createOffsetPath(path));
+  }
+
+  @Override
+  public Vector getVector(@NonNull ConfigPath path) {
+    return getConfig().getVector(createOffsetPath(path));
+  }
+
+  @Override
+  public Vector getVector(@NonNull ConfigPath path, Vector def) {
+    return getConfig().getVector(createOffsetPath(path), def);
+  }
+
+  @Override
+  public boolean isVector(@NonNull ConfigPath path) {
+    return getConfig().isVector(createOffsetPath(path));
+  }
+
   public ConfigPath createOffsetPath(@NonNull ConfigPath input) {
     return ConfigPaths.concat(getOffsetPath(), input);
   }
@@ -0,0 +1,260 @@
+package io.github.aparx.bufig.handler;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.aparx.bufig.AbstractConfig;
+import io.github.aparx.bufig.Config;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Watches the directories of all configs within a handler for external changes and
+ * reloads the affected configs, using a {@code WatchService} rather than polling files.
+ * <p>Bursts of events of the same file are debounced into a single check once no event
+ * has occurred for the debounce duration. The check only reloads a config if its file
+ * has actually been changed externally, thus writes of this library are ignored (see
+ * {@link AbstractConfig#isFileChanged()}). Configs not derived from
+ * {@code AbstractConfig} are reloaded on every change.
+ * <p>Files are compared against their last known state and parsed on a background
+ * thread, without accessing the contents of the configs. The parsed contents are then
+ * applied using the apply executor, for example one running tasks on the main thread of
+ * the server. Configs are not synchronized with other readers, thus the apply executor
+ * must run on the thread accessing the configs. The listeners are invoked on the apply
+ * executor. Configs that cannot be parsed detached (see
+ * {@link AbstractConfig#parseFile()}) are loaded entirely on the apply executor.
+ * <p>A file changed externally while its config has unsaved modifications is not
+ * reloaded, as either change would be lost. Listeners are notified about the conflict
+ * instead (see {@link Listener#onConflict(Config)}).
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 10:12
+ * @see ConfigHandler#watch(Duration, Executor)
+ * @since 1.0
+ */
+public class ConfigWatcher implements AutoCloseable {
+
+  public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+
+  private final @NonNull ConfigHandler<?> handler;
+
+  @Getter
+  private final @NonNull Duration debounce;
+
+  private final @NonNull Executor applyExecutor;
+
+  private final @NonNull ScheduledExecutorService scheduler;
+
+  private final @NonNull WatchService watchService;
+
+  private final Set<@NonNull Path> directories = ConcurrentHashMap.newKeySet();
+
+  /** The watched configs by their absolute file, replaced on every refresh. */
+  private volatile Map<@NonNull Path, @NonNull Config> configs = Map.of();
+
+  private final Map<@NonNull Path, @NonNull ScheduledFuture<?>> pending =
+      new ConcurrentHashMap<>();
+
+  private final List<@NonNull Listener> listeners = new CopyOnWriteArrayList<>();
+
+  private volatile @Nullable Thread thread;
+
+  private volatile boolean closed;
+
+  /**
+   * @param handler       the handler whose configs to watch
+   * @param debounce      the duration without events after which a file is checked
+   * @param applyExecutor the executor reloading configs and notifying the listeners
+   * @throws IOException if the watch service cannot be created
+   */
+  public ConfigWatcher(
+      @NonNull ConfigHandler<?> handler,
+      @NonNull Duration debounce,
+      @NonNull Executor applyExecutor) throws IOException {
+    Preconditions.checkNotNull(handler, "Handler must not be null");
+    Preconditions.checkNotNull(debounce, "Debounce must not be null");
+    Preconditions.checkNotNull(applyExecutor, "Apply executor must not be null");
+    Preconditions.checkArgument(!debounce.isNegative(), "Debounce must not be negative");
+    this.handler = handler;
+    this.debounce = debounce;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("bufig-watch-check-%d")
+        .setDaemon(true)
+        .build());
+    this.applyExecutor = applyExecutor;
+    this.watchService = FileSystems.getDefault().newWatchService();
+  }
+
+  public void addListener(@NonNull Listener listener) {
+    Preconditions.checkNotNull(listener, "Listener must not be null");
+    listeners.add(listener);
+  }
+
+  public void removeListener(@NonNull Listener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Registers the directories of all current configs and starts watching them.
+   *
+   * @throws IllegalStateException if this watcher has already been started or is closed
+   */
+  public synchronized void start() {
+    Preconditions.checkState(thread == null && !closed, "Watcher cannot be started");
+    // read before refreshing, such that configs added in between are registered by the thread
+    int size = handler.asMap().size();
+    refresh();
+    Thread thread = new Thread(() -> run(size), "bufig-watch");
+    thread.setDaemon(true);
+    this.thread = thread;
+    thread.start();
+  }
+
+  /**
+   * Registers the directories of configs added to the handler since the last refresh.
+   * This is done automatically whenever the amount of configs changes.
+   */
+  public synchronized void refresh() {
+    Map<Path, Config> configs = new HashMap<>();
+    for (Config config : handler) {
+      Path file = config.getFile().toPath().toAbsolutePath();
+      configs.put(file, config);
+      Path directory = file.getParent();
+      if (directory == null || directories.contains(directory)) continue;
+      if (!Files.isDirectory(directory)) continue;
+      try {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+        directories.add(directory);
+      } catch (IOException | ClosedWatchServiceException e) {
+        // the directory is registered again on the next refresh
+      }
+    }
+    this.configs = configs;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    Thread thread = this.thread;
+    if (thread != null) thread.interrupt();
+    scheduler.shutdownNow();
+    watchService.close();
+  }
+
+  private void run(int size) {
+    while (!closed) {
+      WatchKey key;
+      try {
+        key = watchService.poll(1, TimeUnit.SECONDS);
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+      int newSize = handler.asMap().size();
+      if (newSize != size) {
+        size = newSize;
+        refresh();
+      }
+      if (key == null) continue;
+      Path directory = (Path) key.watchable();
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+          // events have been lost, thus every config within the directory is checked
+          for (Path file : configs.keySet())
+            if (directory.equals(file.getParent())) schedule(file);
+        } else {
+          schedule(directory.resolve((Path) event.context()));
+        }
+      }
+      if (!key.reset()) directories.remove(directory);
+    }
+  }
+
+  private void schedule(@NonNull Path file) {
+    if (closed) return;
+    pending.compute(file, (ignored, previous) -> {
+      if (previous != null) previous.cancel(false);
+      try {
+        return scheduler.schedule(() -> check(file), debounce.toNanos(), TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        return null;
+      }
+    });
+  }
+
+  private void check(@NonNull Path file) {
+    pending.remove(file);
+    Config config = lookup(file);
+    if (config == null) return;
+    if (!(config instanceof AbstractConfig)) {
+      applyExecutor.execute(() -> reload(config, null));
+      return;
+    }
+    AbstractConfig abstractConfig = (AbstractConfig) config;
+    // compared against the recorded state only, as the config is accessed by other threads
+    if (!abstractConfig.isFileStateChanged()) return;
+    AbstractConfig.ParsedFile parsed;
+    try {
+      parsed = abstractConfig.parseFile();
+    } catch (IOException | RuntimeException e) {
+      applyExecutor.execute(() -> listeners.forEach((l) -> l.onFailure(config, e)));
+      return;
+    }
+    applyExecutor.execute(() -> {
+      if (abstractConfig.isFileConflicting())
+        listeners.forEach((listener) -> listener.onConflict(config));
+      else if (abstractConfig.isFileChanged()) reload(config, parsed);
+    });
+  }
+
+  /** Applies {@code parsed} to {@code config}, or loads it if not parsed beforehand. */
+  private void reload(@NonNull Config config, AbstractConfig.@Nullable ParsedFile parsed) {
+    try {
+      if (parsed != null) parsed.apply();
+      else config.load();
+    } catch (RuntimeException e) {
+      listeners.forEach((listener) -> listener.onFailure(config, e));
+      return;
+    }
+    listeners.forEach((listener) -> listener.onReload(config));
+  }
+
+  private @Nullable Config lookup(@NonNull Path file) {
+    Config config = configs.get(file);
+    if (config == null || handler.asMap().get(config.getId()) == config) return config;
+    // the config has been replaced without changing the amount of configs
+    refresh();
+    return configs.get(file);
+  }
+
+  /** Listener notified about configs reloaded by a watcher. */
+  public interface Listener {
+
+    /** Called on the apply executor after {@code config} has been reloaded. */
+    void onReload(@NonNull Config config);
+
+    /** Called on the apply executor if reloading {@code config} has failed. */
+    default void onFailure(@NonNull Config config, @NonNull Throwable throwable) {}
+
+    /**
+     * Called on the apply executor if the file of {@code config} has been changed
+     * externally while it has unsaved modifications, in which case it is not reloaded.
+     * Resolve the conflict by either loading or saving the config. Notifies
+     * {@link #onFailure(Config, Throwable)} by default.
+     */
+    default void onConflict(@NonNull Config config) {
+      onFailure(config, new IllegalStateException(
+          "File of config " + config.getId() + " changed while it has unsaved modifications"));
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+package io.github.aparx.bufig.handler;
+
+import com.google.common.base.Preconditions;
+import io.github.aparx.bufig.Config;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+
+/**
+ * Config handler whose configs are files within a {@code ConfigDirectory}, which can be
+ * scanned to discover and register all existing config files.
+ * <p>Configs are still created lazily through {@code getOrCreate}, using the file the
+ * directory resolves for the identifier. Scanning only registers the identifiers found,
+ * while {@link #prewarm()} additionally loads all of them in parallel.
+ *
+ * @param <T> the type of config
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-29 14:31
+ * @see ConfigDirectory
+ * @since 1.0
+ */
+public class DirectoryConfigMap<T extends Config> extends ConfigMap<T> {
+
+  @Getter
+  private final @NonNull ConfigDirectory directory;
+
+  private final Set<@NonNull String> registeredIds = ConcurrentHashMap.newKeySet();
+
+  public DirectoryConfigMap(
+      @NonNull ConfigDirectory directory,
+      @NonNull BiFunction<@NonNull String, @NonNull File, @NonNull ? extends T> factory) {
+    this(directory, factory, ForkJoinPool.commonPool());
+  }
+
+  public DirectoryConfigMap(
+      @NonNull ConfigDirectory directory,
+      @NonNull BiFunction<@NonNull String, @NonNull File, @NonNull ? extends T> factory,
+      @NonNull Executor executor) {
+    super((id) -> factory.apply(id, directory.resolve(id).toFile()), executor);
+    Preconditions.checkNotNull(directory, "Directory must not be null");
+    Preconditions.checkNotNull(factory, "Factory must not be null");
+    this.directory = directory;
+  }
+
+  /**
+   * Scans the directory and registers the identifiers of all config files found.
+   *
+   * @return the identifiers found
+   * @throws UncheckedIOException if the directory cannot be read
+   */
+  public @NonNull Set<@NonNull String> scan() {
+    Set<String> found = ConcurrentHashMap.newKeySet();
+    try {
+      directory.scan(found::add);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    registeredIds.addAll(found);
+    return found;
+  }
+
+  /**
+   * Scans the directory on the executor of this handler and loads all configs found in
+   * parallel.
+   *
+   * @return the future completed once every config found is either loaded or has failed
+   * @see #loadAll(java.util.Collection)
+   */
+  public @NonNull CompletableFuture<ConfigBatchResult> prewarm() {
+    return CompletableFuture.supplyAsync(this::scan, getExecutor()).thenCompose(this::loadAll);
+  }
+
+  /** Returns the identifiers registered through previous scans. */
+  public @NonNull Set<@NonNull String> getRegisteredIds() {
+    return Collections.unmodifiableSet(registeredIds);
+  }
+
+}
@@ -0,0 +1,180 @@
+package io.github.aparx.bufig.handler;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import lombok.Getter;
+import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * File factory nesting config files under subdirectories named after a prefix of the
+ * hash of their identifier, such as {@code ab/cd/<id>.yml}, so that no single directory
+ * holds more than a fraction of all files.
+ * <p>If a legacy directory is given, files of the previous flat layout
+ * ({@code <legacy>/<id>.yml}) are moved into the sharded layout as soon as they are
+ * resolved, such that a server can switch layouts while running. Remaining files are
+ * moved in bulk using {@link #migrate(Executor)}.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-29 16:48
+ * @see ConfigHandlers#ofMultistep(Function, java.util.function.BiFunction)
+ * @since 1.0
+ */
+@Getter
+public final class ShardedFileFactory implements Function<@NonNull String, @NonNull File> {
+
+  public static final int DEFAULT_LEVELS = 2;
+
+  public static final int DEFAULT_WIDTH = 2;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32_fixed();
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final @NonNull Path root;
+
+  private final @NonNull String extension;
+
+  /** The amount of nested subdirectories. */
+  private final @Positive int levels;
+
+  /** The amount of hexadecimal digits of the hash used per subdirectory. */
+  private final @Positive int width;
+
+  private final @Nullable Path legacyDirectory;
+
+  public ShardedFileFactory(
+      @NonNull Path root,
+      @NonNull String extension,
+      @Positive int levels,
+      @Positive int width,
+      @Nullable Path legacyDirectory) {
+    Preconditions.checkNotNull(root, "Root must not be null");
+    Preconditions.checkNotNull(extension, "Extension must not be null");
+    Preconditions.checkArgument(levels > 0, "Levels must be positive");
+    Preconditions.checkArgument(width > 0, "Width must be positive");
+    Preconditions.checkArgument(levels * width <= 8, "Hash prefix exceeds 32 bits");
+    this.root = root;
+    this.extension = extension;
+    this.levels = levels;
+    this.width = width;
+    this.legacyDirectory = legacyDirectory;
+  }
+
+  public static ShardedFileFactory of(@NonNull Path root, @NonNull String extension) {
+    return new ShardedFileFactory(root, extension, DEFAULT_LEVELS, DEFAULT_WIDTH, null);
+  }
+
+  /**
+   * Returns a factory sharding files within {@code root}, which also contains the files of
+   * the previous flat layout, being migrated as they are resolved.
+   */
+  public static ShardedFileFactory ofMigrating(@NonNull Path root, @NonNull String extension) {
+    return new ShardedFileFactory(root, extension, DEFAULT_LEVELS, DEFAULT_WIDTH, root);
+  }
+
+  /**
+   * Returns the file of {@code configId}, moving its legacy file into place first if the
+   * sharded file does not exist yet.
+   *
+   * @param configId the identifier of the config
+   * @return the sharded file of {@code configId}
+   * @throws UncheckedIOException if the legacy file exists but cannot be moved
+   */
+  @Override
+  public @NonNull File apply(@NonNull String configId) {
+    Path target = resolve(configId);
+    if (legacyDirectory != null && !Files.exists(target)) {
+      try {
+        moveLegacy(legacyDirectory.resolve(configId + extension), target);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return target.toFile();
+  }
+
+  /** Returns the sharded file of {@code configId}, without migrating its legacy file. */
+  public @NonNull Path resolve(@NonNull String configId) {
+    Preconditions.checkNotNull(configId, "ID must not be null");
+    int hash = HASH_FUNCTION.hashString(configId, StandardCharsets.UTF_8).asInt();
+    Path directory = root;
+    char[] buffer = new char[width];
+    for (int i = 0, nibble = 0; i < levels; ++i) {
+      for (int j = 0; j < width; ++j, ++nibble)
+        buffer[j] = HEX_DIGITS[(hash >>> (28 - 4 * nibble)) & 0xF];
+      directory = directory.resolve(new String(buffer));
+    }
+    return directory.resolve(configId + extension);
+  }
+
+  /**
+   * Moves all files of the legacy directory into the sharded layout in parallel, using
+   * {@code executor}. Files are moved one by one, while configs being resolved
+   * concurrently are moved on demand, such that no config is ever missing.
+   *
+   * @param executor the executor moving the files
+   * @return the future completed once every file is either moved or has failed
+   * @throws IllegalStateException if this factory has no legacy directory
+   */
+  public @NonNull CompletableFuture<ConfigBatchResult> migrate(@NonNull Executor executor) {
+    Preconditions.checkNotNull(executor, "Executor must not be null");
+    Preconditions.checkState(legacyDirectory != null, "Factory has no legacy directory");
+    Path legacyDirectory = this.legacyDirectory;
+    return CompletableFuture.supplyAsync(() -> {
+      Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+      ConfigDirectory directory = ConfigDirectory.of(legacyDirectory, extension, false);
+      try {
+        directory.scan((configId) -> futures.put(configId, CompletableFuture.runAsync(() -> {
+          try {
+            moveLegacy(directory.resolve(configId), resolve(configId));
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        }, executor)));
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+      return futures;
+    }, executor).thenCompose(ConfigMap::collect);
+  }
+
+  private static void moveLegacy(@NonNull Path source, @NonNull Path target) throws IOException {
+    // an existing sharded file is newer, as legacy files are never written anymore
+    if (!Files.exists(source) || Files.exists(target)) return;
+    Files.createDirectories(target.getParent());
+    try {
+      // linking fails atomically if the target exists, whereas a rename would replace a
+      // file moved or saved concurrently with the stale legacy file
+      try {
+        Files.createLink(target, source);
+      } catch (FileAlreadyExistsException | NoSuchFileException e) {
+        throw e;
+      } catch (UnsupportedOperationException | FileSystemException e) {
+        // links are unsupported by some file systems, such as FAT, which may fail with a
+        // generic exception. Without REPLACE_EXISTING, the move fails if the target exists
+        Files.move(source, target);
+        return;
+      }
+      Files.deleteIfExists(source);
+    } catch (NoSuchFileException | FileAlreadyExistsException e) {
+      // moved concurrently, either on demand or by a migration
+      if (!Files.exists(target)) throw e;
+    }
+  }
+
+}
@@ -0,0 +1,140 @@
+package io.github.aparx.bufig.io;
+
+import lombok.experimental.UtilityClass;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Set of utilities for reading and writing configuration files.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-28 16:20
+ * @since 1.0
+ */
+@UtilityClass
+public final class ConfigFiles {
+
+  /**
+   * Writes {@code bytes} to a temporary file within the directory of {@code target}, forces
+   * it to the storage device and then moves it atomically onto {@code target}.
+   *
+   * @param target the file to replace
+   * @param bytes  the new contents of {@code target}
+   * @throws IOException if writing or moving fails, in which case target is left untouched
+   */
+  public static void writeAtomically(
+      @NonNull Path target, byte @NonNull [] bytes) throws IOException {
+    Path temp = writeTemporary(target, bytes, true);
+    try {
+      replace(temp, target);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Writes {@code bytes} to a new temporary file within the directory of {@code target},
+   * creating the directory if it does not exist yet.
+   * <p>The temporary file is created with the default permissions of new files, like
+   * {@code target} would be. If {@code target} exists and the file system supports POSIX
+   * permissions, the permissions of {@code target} are copied onto the temporary file,
+   * such that replacing {@code target} does not change who can access it.
+   *
+   * @param target the file the temporary file is going to replace
+   * @param bytes  the contents to write
+   * @param force  true to force the contents to the storage device before returning
+   * @return the temporary file, which the caller is responsible for moving or deleting
+   * @throws IOException if the temporary file cannot be written, in which case it is
+   *                     deleted again
+   */
+  public static @NonNull Path writeTemporary(
+      @NonNull Path target, byte @NonNull [] bytes, boolean force) throws IOException {
+    Path directory = target.toAbsolutePath().getParent();
+    if (directory != null) Files.createDirectories(directory);
+    Path temp = createTemporary(target);
+    try {
+      copyPermissions(target, temp);
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) channel.write(buffer);
+        if (force) channel.force(false);
+      }
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    return temp;
+  }
+
+  /** Forces the contents of the existing {@code file} to the storage device. */
+  public static void force(@NonNull Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.force(false);
+    }
+  }
+
+  /**
+   * Forces the entries of {@code directory} to the storage device, such that previous
+   * moves into {@code directory} are durable. Not every platform supports this.
+   *
+   * @param directory the directory to force
+   * @return true if the directory has been forced, false if unsupported
+   */
+  public static boolean forceDirectory(@NonNull Path directory) {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Creates a new file named uniquely after {@code target} within its directory. Unlike
+   * {@code Files.createTempFile}, which restricts access to the owner, the file is created
+   * with the default permissions of new files.
+   */
+  private static @NonNull Path createTemporary(@NonNull Path target) throws IOException {
+    Path absolute = target.toAbsolutePath();
+    String prefix = absolute.getFileName() + ".";
+    for (; ; ) {
+      long suffix = ThreadLocalRandom.current().nextLong();
+      Path temp = absolute.resolveSibling(prefix + Long.toUnsignedString(suffix) + ".tmp");
+      try {
+        return Files.createFile(temp);
+      } catch (FileAlreadyExistsException e) {
+        // another temporary file has the same name, thus another name is tried
+      }
+    }
+  }
+
+  /** Copies the POSIX permissions of {@code source} onto {@code target}, if supported. */
+  private static void copyPermissions(
+      @NonNull Path source, @NonNull Path target) throws IOException {
+    PosixFileAttributeView view =
+        Files.getFileAttributeView(target, PosixFileAttributeView.class);
+    if (view == null || !Files.exists(source)) return;
+    try {
+      view.setPermissions(Files.getPosixFilePermissions(source));
+    } catch (NoSuchFileException e) {
+      // the source has been deleted in the meantime, thus the default permissions remain
+    }
+  }
+
+  /** Moves {@code source} onto {@code target}, atomically if supported. */
+  public static void replace(@NonNull Path source, @NonNull Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+}
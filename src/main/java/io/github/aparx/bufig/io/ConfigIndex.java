@@ -0,0 +1,290 @@
+package io.github.aparx.bufig.io;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Persistent index of config snapshots, such that configs whose files are unchanged since
+ * they were last indexed are restored from their snapshot rather than parsed again.
+ * <p>Each entry is keyed by config identifier and records the size, modification time and
+ * content hash of the file, along with a snapshot of the loaded config. An entry is
+ * trusted by size and modification time alone, unless the file was modified so shortly
+ * before the entry was recorded that a later change may have kept the modification time,
+ * in which case the contents of the file are hashed and compared.
+ * <p>Snapshots may be recorded lazily, such that saving a config only records the state
+ * of its file, while the snapshot is created once the index is saved or the entry is
+ * found (see {@link #createSnapshots()}).
+ * <p>The index is only a cache: a missing, outdated or corrupt index file merely causes
+ * configs to be parsed as usual.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 15:10
+ * @see io.github.aparx.bufig.AbstractConfig#setIndex(ConfigIndex)
+ * @since 1.0
+ */
+public final class ConfigIndex {
+
+  private static final int MAGIC = 0x42464958; // BFIX
+
+  private static final int VERSION = 2;
+
+  /** Maximum granularity of file modification times across common file systems. */
+  private static final long MODIFICATION_TIME_GRANULARITY = 2000;
+
+  @Getter
+  private final @NonNull Path file;
+
+  private final Map<@NonNull String, @NonNull Entry> entries = new ConcurrentHashMap<>();
+
+  private volatile boolean modified;
+
+  private ConfigIndex(@NonNull Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Opens the index stored in {@code file}. If the file does not exist or cannot be read,
+   * the returning index is empty.
+   *
+   * @param file the file to read the index from and to write it to
+   * @return the opened index
+   */
+  public static @NonNull ConfigIndex open(@NonNull Path file) {
+    Preconditions.checkNotNull(file, "File must not be null");
+    ConfigIndex index = new ConfigIndex(file);
+    if (!Files.isRegularFile(file)) return index;
+    try (DataInputStream input = new DataInputStream(
+        new ByteArrayInputStream(Files.readAllBytes(file)))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) return index;
+      for (int i = 0, n = input.readInt(); i < n; ++i) {
+        String configId = input.readUTF();
+        long length = input.readLong();
+        long lastModified = input.readLong();
+        long recordedAt = input.readLong();
+        byte[] hash = new byte[input.readUnsignedByte()];
+        input.readFully(hash);
+        int snapshotLength = input.readInt();
+        if (snapshotLength < 0 || snapshotLength > input.available())
+          throw new IOException("Invalid snapshot length " + snapshotLength);
+        byte[] snapshot = new byte[snapshotLength];
+        input.readFully(snapshot);
+        index.entries.put(configId, new Entry(
+            HashCode.fromBytes(hash), length, lastModified, recordedAt, snapshot, null));
+      }
+    } catch (IOException | RuntimeException e) {
+      index.entries.clear();
+    }
+    return index;
+  }
+
+  /**
+   * Returns the entry of {@code configId} if it matches the current state of {@code file}.
+   * Only reads {@code file} if the entry cannot be trusted by size and modification time.
+   *
+   * @param configId the identifier of the config
+   * @param file     the file of the config
+   * @return the matching entry, or null if absent or outdated
+   */
+  public @Nullable Entry find(@NonNull String configId, @NonNull File file) {
+    Entry entry = entries.get(configId);
+    if (entry == null) return null;
+    if (entry.snapshot == null && (entry = createSnapshot(configId, entry)) == null)
+      return null;
+    long length = file.length(), lastModified = file.lastModified();
+    if (entry.length != length) return null;
+    if (entry.lastModified == lastModified && entry.isTrusted()) return entry;
+    try {
+      byte[] bytes = Files.readAllBytes(file.toPath());
+      if (!entry.hash.equals(Hashing.murmur3_128().hashBytes(bytes))) return null;
+    } catch (IOException e) {
+      return null;
+    }
+    Entry verified = new Entry(entry.hash, length, lastModified,
+        System.currentTimeMillis(), entry.snapshot, null);
+    entries.put(configId, verified);
+    modified = true;
+    return verified;
+  }
+
+  /**
+   * Records the snapshot of the config {@code configId}, whose file has been found to
+   * match {@code hash} and {@code length}.
+   *
+   * @param configId     the identifier of the config
+   * @param hash         the murmur3 (128-bit) hash of the file
+   * @param length       the length of the file
+   * @param lastModified the modification time of the file, or a negative value if unknown
+   * @param snapshot     the snapshot of the config, corresponding to the file
+   */
+  public void put(
+      @NonNull String configId,
+      @NonNull HashCode hash,
+      long length,
+      long lastModified,
+      @NonNull ConfigSnapshot snapshot) {
+    Preconditions.checkNotNull(configId, "ID must not be null");
+    Preconditions.checkNotNull(hash, "Hash must not be null");
+    Preconditions.checkNotNull(snapshot, "Snapshot must not be null");
+    entries.put(configId, new Entry(hash, length, lastModified,
+        System.currentTimeMillis(), snapshot.toByteArray(), null));
+    modified = true;
+  }
+
+  /**
+   * Records the config {@code configId} like {@link #put(String, HashCode, long, long,
+   * ConfigSnapshot)}, but creates its snapshot lazily, once this index is saved or the
+   * entry is found. Saving a config thus only records the state of its file.
+   *
+   * @param configId     the identifier of the config
+   * @param hash         the murmur3 (128-bit) hash of the file
+   * @param length       the length of the file
+   * @param lastModified the modification time of the file, or a negative value if unknown
+   * @param snapshot     the supplier of the snapshot corresponding to the file, returning
+   *                     null if the config has changed since, in which case the entry is
+   *                     removed
+   */
+  public void put(
+      @NonNull String configId,
+      @NonNull HashCode hash,
+      long length,
+      long lastModified,
+      @NonNull Supplier<@Nullable ConfigSnapshot> snapshot) {
+    Preconditions.checkNotNull(configId, "ID must not be null");
+    Preconditions.checkNotNull(hash, "Hash must not be null");
+    Preconditions.checkNotNull(snapshot, "Snapshot must not be null");
+    entries.put(configId, new Entry(hash, length, lastModified,
+        System.currentTimeMillis(), null, snapshot));
+    modified = true;
+  }
+
+  /**
+   * Creates the snapshots of all entries recorded lazily. As the snapshots are created
+   * from the configs themselves, this should be called on the thread modifying them, for
+   * example before saving this index in the background.
+   */
+  public void createSnapshots() {
+    entries.forEach((configId, entry) -> {
+      if (entry.snapshot == null) createSnapshot(configId, entry);
+    });
+  }
+
+  /** Creates the snapshot of the lazily recorded {@code entry}, or removes the entry. */
+  private @Nullable Entry createSnapshot(@NonNull String configId, @NonNull Entry entry) {
+    ConfigSnapshot snapshot;
+    try {
+      snapshot = Objects.requireNonNull(entry.pendingSnapshot).get();
+    } catch (RuntimeException e) {
+      snapshot = null;
+    }
+    if (snapshot == null) {
+      if (entries.remove(configId, entry)) modified = true;
+      return null;
+    }
+    Entry created = new Entry(entry.hash, entry.length, entry.lastModified,
+        entry.recordedAt, snapshot.toByteArray(), null);
+    return entries.replace(configId, entry, created) ? created : null;
+  }
+
+  public void remove(@NonNull String configId) {
+    if (entries.remove(configId) != null) modified = true;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Writes this index to its file, if it has been modified since it was opened or last
+   * saved. Snapshots recorded lazily are created beforehand (see {@link #createSnapshots()}).
+   *
+   * @throws IOException if the file cannot be written
+   */
+  public synchronized void save() throws IOException {
+    if (!modified) return;
+    modified = false;
+    createSnapshots();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(bytes)) {
+      Map<String, Entry> entries = new HashMap<>(this.entries);
+      // entries recorded lazily in the meantime are written on the next save
+      if (entries.values().removeIf((entry) -> entry.snapshot == null)) modified = true;
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(entries.size());
+      for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+        Entry entry = mapEntry.getValue();
+        output.writeUTF(mapEntry.getKey());
+        output.writeLong(entry.length);
+        output.writeLong(entry.lastModified);
+        output.writeLong(entry.recordedAt);
+        byte[] hash = entry.hash.asBytes();
+        output.writeByte(hash.length);
+        output.write(hash);
+        output.writeInt(entry.snapshot.length);
+        output.write(entry.snapshot);
+      }
+    } catch (IOException | RuntimeException e) {
+      modified = true;
+      throw e;
+    }
+    try {
+      ConfigFiles.writeAtomically(file, bytes.toByteArray());
+    } catch (IOException e) {
+      modified = true;
+      throw e;
+    }
+  }
+
+  /**
+   * Writes this index to its file like {@link #save()}, without throwing on failure, as
+   * the index is only a cache.
+   *
+   * @return true if this index is stored in its file
+   */
+  public boolean trySave() {
+    try {
+      save();
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** An indexed snapshot together with the state of the file it corresponds to. */
+  @Getter
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  public static final class Entry {
+    private final @NonNull HashCode hash;
+    private final long length;
+    private final long lastModified;
+    private final long recordedAt;
+    @Getter(AccessLevel.NONE)
+    private final byte @Nullable [] snapshot;
+    @Getter(AccessLevel.NONE)
+    private final @Nullable Supplier<@Nullable ConfigSnapshot> pendingSnapshot;
+
+    public @NonNull ConfigSnapshot getSnapshot() throws IOException {
+      return ConfigSnapshot.fromByteArray(Objects.requireNonNull(snapshot));
+    }
+
+    private boolean isTrusted() {
+      return lastModified >= 0 && lastModified + MODIFICATION_TIME_GRANULARITY < recordedAt;
+    }
+  }
+
+}
@@ -0,0 +1,173 @@
+package io.github.aparx.bufig.io;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Write-behind queue, which writes file contents on a background executor.
+ * <p>Contents submitted for the same file within the coalescing window are coalesced into
+ * a single write of the latest contents, with all submitters sharing the same future.
+ * Writes of the same file are never executed concurrently and files are always written
+ * atomically.
+ * <p>Before shutting down, {@link #flush()} should be called (and joined), such that all
+ * pending writes are executed immediately.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-28 16:34
+ * @see ConfigFiles#writeAtomically(Path, byte[])
+ * @since 1.0
+ */
+public class ConfigSaveQueue implements AutoCloseable {
+
+  public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(1);
+
+  @Getter
+  private final @NonNull Duration window;
+
+  private final @NonNull ScheduledExecutorService executor;
+
+  private final boolean ownsExecutor;
+
+  private final Map<@NonNull Path, @NonNull PendingWrite> pending = new ConcurrentHashMap<>();
+
+  /** Files currently being written, which are no longer pending but not written yet. */
+  private final Set<@NonNull Path> running = ConcurrentHashMap.newKeySet();
+
+  private final Set<@NonNull CompletableFuture<Void>> outstanding =
+      ConcurrentHashMap.newKeySet();
+
+  private final Striped<Lock> fileLocks = Striped.lock(64);
+
+  public ConfigSaveQueue(
+      @NonNull ScheduledExecutorService executor,
+      @NonNull Duration window) {
+    this(executor, window, false);
+  }
+
+  public ConfigSaveQueue(@NonNull Duration window) {
+    this(Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("bufig-save-%d")
+        .setDaemon(true)
+        .build()), window, true);
+  }
+
+  public ConfigSaveQueue() {
+    this(DEFAULT_WINDOW);
+  }
+
+  private ConfigSaveQueue(
+      @NonNull ScheduledExecutorService executor,
+      @NonNull Duration window,
+      boolean ownsExecutor) {
+    Preconditions.checkNotNull(executor, "Executor must not be null");
+    Preconditions.checkNotNull(window, "Window must not be null");
+    Preconditions.checkArgument(!window.isNegative(), "Window must not be negative");
+    this.executor = executor;
+    this.window = window;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /**
+   * Submits {@code bytes} to be written to {@code target} once the coalescing window has
+   * passed. If a write of {@code target} is already pending, its contents are replaced.
+   *
+   * @param target the file to write
+   * @param bytes  the contents to write, which must not be modified afterwards
+   * @return the future completed once the contents (or newer ones) have been written
+   */
+  @CanIgnoreReturnValue
+  public CompletableFuture<Void> submit(@NonNull Path target, byte @NonNull [] bytes) {
+    Preconditions.checkNotNull(target, "Target must not be null");
+    Preconditions.checkNotNull(bytes, "Bytes must not be null");
+    PendingWrite write = pending.compute(target, (path, current) -> {
+      if (current != null) {
+        current.bytes = bytes;
+        return current;
+      }
+      PendingWrite newWrite = new PendingWrite(path, bytes);
+      outstanding.add(newWrite.future);
+      newWrite.future.whenComplete((ignored, throwable) -> outstanding.remove(newWrite.future));
+      newWrite.task = executor.schedule(() -> execute(newWrite),
+          window.toNanos(), TimeUnit.NANOSECONDS);
+      return newWrite;
+    });
+    return write.future;
+  }
+
+  /**
+   * Returns true if a write of {@code target} has been submitted and not completed yet,
+   * that is while it is waiting for the coalescing window to pass or being written.
+   *
+   * @param target the file to check
+   * @return true if the contents of {@code target} are about to change
+   */
+  public boolean isPending(@NonNull Path target) {
+    return pending.containsKey(target) || running.contains(target);
+  }
+
+  /**
+   * Executes all pending writes immediately.
+   *
+   * @return the future completed once all writes pending or running at the time of
+   * calling have completed
+   */
+  public CompletableFuture<Void> flush() {
+    for (PendingWrite write : pending.values())
+      if (write.task != null && write.task.cancel(false))
+        executor.execute(() -> execute(write));
+    return CompletableFuture.allOf(outstanding.toArray(CompletableFuture[]::new));
+  }
+
+  /** Flushes and waits for all pending writes, then shuts the owned executor down. */
+  @Override
+  public void close() {
+    try {
+      flush().join();
+    } finally {
+      if (ownsExecutor) executor.shutdown();
+    }
+  }
+
+  private void execute(@NonNull PendingWrite write) {
+    Lock lock = fileLocks.get(write.target);
+    lock.lock();
+    try {
+      running.add(write.target);
+      // detach first, such that contents submitted from now on are written again
+      pending.remove(write.target, write);
+      ConfigFiles.writeAtomically(write.target, write.bytes);
+      running.remove(write.target);
+      write.future.complete(null);
+    } catch (IOException | RuntimeException e) {
+      running.remove(write.target);
+      write.future.completeExceptionally(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static final class PendingWrite {
+    private final @NonNull Path target;
+    private final @NonNull CompletableFuture<Void> future = new CompletableFuture<>();
+    private volatile byte @NonNull [] bytes;
+    private volatile ScheduledFuture<?> task;
+
+    private PendingWrite(@NonNull Path target, byte @NonNull [] bytes) {
+      this.target = target;
+      this.bytes = bytes;
+    }
+  }
+
+}
@@ -0,0 +1,395 @@
+package io.github.aparx.bufig.io;
+
+import com.google.common.base.Preconditions;
+import io.github.aparx.bufig.ConfigPath;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Immutable snapshot of the contents of a config, being its value tree, its documentation
+ * and its header, which can be encoded to and decoded from a compact binary form without
+ * any text parsing.
+ * <p>The encoding is length-prefixed and stores every distinct string once, in a string
+ * table preceding the value tree. It is decoded directly from a {@code ByteBuffer}, such
+ * that a snapshot file can be memory-mapped (see {@link #read(Path)}).
+ * <p>Values are nested maps, where a map directly within another map represents a
+ * section. Supported leaf values are strings, booleans, integers, longs, doubles, floats
+ * and lists of supported values, including maps with string keys. Creating a snapshot of
+ * a value tree containing any other value or key fails, so that the caller can fall back
+ * to text.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 14:26
+ * @see io.github.aparx.bufig.AbstractConfig#createSnapshot()
+ * @since 1.0
+ */
+@Getter
+public final class ConfigSnapshot {
+
+  private static final int MAGIC = 0x42465353; // BFSS
+
+  private static final int VERSION = 2;
+
+  private static final byte TAG_MAP = 0;
+  private static final byte TAG_STRING = 1;
+  private static final byte TAG_INT = 2;
+  private static final byte TAG_LONG = 3;
+  private static final byte TAG_DOUBLE = 4;
+  private static final byte TAG_FLOAT = 5;
+  private static final byte TAG_BOOLEAN = 6;
+  private static final byte TAG_LIST = 7;
+
+  private final @Nullable String header;
+
+  private final @NonNull Map<@NonNull ConfigPath, String @NonNull []> docs;
+
+  private final @NonNull Map<@NonNull String, @NonNull Object> values;
+
+  /**
+   * @param header the header, or null if absent
+   * @param docs   the documentation of each path
+   * @throws IllegalArgumentException if the value tree contains unsupported values or keys
+   */
+  public ConfigSnapshot(
+      @Nullable String header,
+      @NonNull Map<@NonNull ConfigPath, String @NonNull []> docs,
+      @NonNull Map<@NonNull String, @NonNull Object> values) {
+    Preconditions.checkNotNull(docs, "Docs must not be null");
+    Preconditions.checkNotNull(values, "Values must not be null");
+    this.header = header;
+    Map<ConfigPath, String[]> docsCopy = new LinkedHashMap<>(docs.size());
+    docs.forEach((path, lines) -> docsCopy.put(path, lines.clone()));
+    this.docs = Collections.unmodifiableMap(docsCopy);
+    this.values = copyMap(values);
+  }
+
+  /**
+   * Decodes a snapshot previously encoded using {@link #toByteArray()}.
+   *
+   * @param bytes the encoded snapshot
+   * @return the decoded snapshot
+   * @throws IOException if {@code bytes} is not a valid snapshot
+   */
+  public static @NonNull ConfigSnapshot fromByteArray(byte @NonNull [] bytes) throws IOException {
+    Preconditions.checkNotNull(bytes, "Bytes must not be null");
+    return fromBuffer(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Decodes a snapshot from the remaining bytes of {@code buffer}, which may be direct or
+   * memory-mapped. The position of {@code buffer} is left unchanged.
+   *
+   * @param buffer the buffer containing the encoded snapshot
+   * @return the decoded snapshot
+   * @throws IOException if {@code buffer} does not contain a valid snapshot
+   */
+  public static @NonNull ConfigSnapshot fromBuffer(@NonNull ByteBuffer buffer) throws IOException {
+    Preconditions.checkNotNull(buffer, "Buffer must not be null");
+    try {
+      return new Reader(buffer.slice().order(ByteOrder.BIG_ENDIAN)).read();
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new IOException("Truncated snapshot", e);
+    }
+  }
+
+  /**
+   * Reads a snapshot previously written using {@link #write(Path)}, by mapping the file
+   * into memory rather than copying it onto the heap.
+   *
+   * @param file the file to read
+   * @return the decoded snapshot
+   * @throws IOException if the file cannot be read or is not a valid snapshot
+   */
+  public static @NonNull ConfigSnapshot read(@NonNull Path file) throws IOException {
+    Preconditions.checkNotNull(file, "File must not be null");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return fromBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Writes the encoded form of this snapshot to {@code file} atomically.
+   *
+   * @param file the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void write(@NonNull Path file) throws IOException {
+    Preconditions.checkNotNull(file, "File must not be null");
+    ConfigFiles.writeAtomically(file, toByteArray());
+  }
+
+  /**
+   * Encodes this snapshot. Every distinct string, being keys, string values, path
+   * segments, documentation lines and the header, is stored once in a leading string
+   * table and referenced by its index. Lengths and indices are variable-length integers.
+   *
+   * @return the encoded snapshot
+   */
+  public byte @NonNull [] toByteArray() {
+    Writer writer = new Writer();
+    try {
+      writer.writeString(header);
+      writer.writeVarInt(docs.size());
+      for (Map.Entry<ConfigPath, String[]> entry : docs.entrySet()) {
+        ConfigPath path = entry.getKey();
+        writer.writeVarInt(path.length());
+        for (int i = 0; i < path.length(); ++i)
+          writer.writeString(path.get(i));
+        writer.writeStrings(entry.getValue());
+      }
+      writer.writeMap(values);
+      return writer.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Map<String, Object> copyMap(Map<?, ?> map) {
+    Map<String, Object> copy = new LinkedHashMap<>(map.size());
+    map.forEach((key, value) -> {
+      // keys such as integers within lists of maps would be restored as strings
+      Preconditions.checkArgument(key instanceof String, "Unsupported key {0}", key);
+      copy.put((String) key, copyValue(value));
+    });
+    return Collections.unmodifiableMap(copy);
+  }
+
+  private static Object copyValue(Object value) {
+    if (value instanceof Map) return copyMap((Map<?, ?>) value);
+    if (value instanceof List) {
+      List<Object> copy = new ArrayList<>(((List<?>) value).size());
+      for (Object element : (List<?>) value)
+        copy.add(copyValue(element));
+      return Collections.unmodifiableList(copy);
+    }
+    Preconditions.checkArgument(value instanceof String || value instanceof Boolean
+            || value instanceof Integer || value instanceof Long
+            || value instanceof Double || value instanceof Float,
+        "Unsupported value {0}", value != null ? value.getClass() : null);
+    return value;
+  }
+
+  /** Writes {@code value} as unsigned variable-length integer of seven bits per byte. */
+  private static void writeVarInt(DataOutput output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  private static int readVarInt(ByteBuffer buffer) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) return value;
+    }
+    throw new IOException("Malformed variable-length integer");
+  }
+
+  /** Encoder collecting the string table while writing the body. */
+  private static final class Writer {
+    final Map<String, Integer> strings = new HashMap<>();
+    final List<String> table = new ArrayList<>();
+    final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(256);
+    final DataOutputStream body = new DataOutputStream(bodyBytes);
+
+    void writeString(@Nullable String string) throws IOException {
+      if (string == null) {
+        writeVarInt(0);
+        return;
+      }
+      Integer index = strings.get(string);
+      if (index == null) {
+        index = table.size();
+        strings.put(string, index);
+        table.add(string);
+      }
+      writeVarInt(index + 1);
+    }
+
+    void writeVarInt(int value) throws IOException {
+      ConfigSnapshot.writeVarInt(body, value);
+    }
+
+    void writeStrings(String[] strings) throws IOException {
+      writeVarInt(strings.length);
+      for (String string : strings)
+        writeString(string);
+    }
+
+    void writeMap(Map<String, Object> map) throws IOException {
+      writeVarInt(map.size());
+      for (Map.Entry<String, Object> entry : map.entrySet()) {
+        writeString(entry.getKey());
+        writeValue(entry.getValue());
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    void writeValue(Object value) throws IOException {
+      if (value instanceof Map) {
+        body.writeByte(TAG_MAP);
+        writeMap((Map<String, Object>) value);
+      } else if (value instanceof List) {
+        List<?> list = (List<?>) value;
+        body.writeByte(TAG_LIST);
+        writeVarInt(list.size());
+        for (Object element : list)
+          writeValue(element);
+      } else if (value instanceof String) {
+        body.writeByte(TAG_STRING);
+        writeString((String) value);
+      } else if (value instanceof Integer) {
+        body.writeByte(TAG_INT);
+        body.writeInt((Integer) value);
+      } else if (value instanceof Long) {
+        body.writeByte(TAG_LONG);
+        body.writeLong((Long) value);
+      } else if (value instanceof Double) {
+        body.writeByte(TAG_DOUBLE);
+        body.writeDouble((Double) value);
+      } else if (value instanceof Float) {
+        body.writeByte(TAG_FLOAT);
+        body.writeFloat((Float) value);
+      } else {
+        body.writeByte(TAG_BOOLEAN);
+        body.writeBoolean((Boolean) value);
+      }
+    }
+
+    byte[] toByteArray() throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(bodyBytes.size() + 64);
+      DataOutputStream output = new DataOutputStream(bytes);
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      ConfigSnapshot.writeVarInt(output, table.size());
+      for (String string : table) {
+        byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+        ConfigSnapshot.writeVarInt(output, encoded.length);
+        output.write(encoded);
+      }
+      output.flush();
+      bodyBytes.writeTo(bytes);
+      return bytes.toByteArray();
+    }
+  }
+
+  /** Decoder reading directly from a buffer, decoding each distinct string once. */
+  private static final class Reader {
+    final ByteBuffer buffer;
+    String[] table;
+
+    Reader(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    ConfigSnapshot read() throws IOException {
+      if (buffer.getInt() != MAGIC) throw new IOException("Not a snapshot");
+      int version = buffer.getInt();
+      if (version != VERSION) throw new IOException("Unsupported version " + version);
+      table = new String[readLength()];
+      for (int i = 0; i < table.length; ++i)
+        table[i] = decode(readLength());
+      String header = readNullableString();
+      int docCount = readLength();
+      Map<ConfigPath, String[]> docs = new LinkedHashMap<>(docCount);
+      for (int i = 0; i < docCount; ++i) {
+        String[] segments = readStrings();
+        docs.put(ConfigPath.of(segments), readStrings());
+      }
+      return new ConfigSnapshot(header, docs, readMap());
+    }
+
+    Map<String, Object> readMap() throws IOException {
+      int size = readLength();
+      Map<String, Object> map = new LinkedHashMap<>(size);
+      for (int i = 0; i < size; ++i) {
+        String key = readString();
+        map.put(key, readValue());
+      }
+      return map;
+    }
+
+    Object readValue() throws IOException {
+      byte tag = buffer.get();
+      switch (tag) {
+        case TAG_MAP:
+          return readMap();
+        case TAG_LIST:
+          int size = readLength();
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; ++i)
+            list.add(readValue());
+          return list;
+        case TAG_STRING:
+          return readString();
+        case TAG_INT:
+          return buffer.getInt();
+        case TAG_LONG:
+          return buffer.getLong();
+        case TAG_DOUBLE:
+          return buffer.getDouble();
+        case TAG_FLOAT:
+          return buffer.getFloat();
+        case TAG_BOOLEAN:
+          return buffer.get() != 0;
+        default:
+          throw new IOException("Unknown tag " + tag);
+      }
+    }
+
+    String[] readStrings() throws IOException {
+      String[] strings = new String[readLength()];
+      for (int i = 0; i < strings.length; ++i)
+        strings[i] = readString();
+      return strings;
+    }
+
+    String readString() throws IOException {
+      String string = readNullableString();
+      if (string == null) throw new IOException("Unexpected null string");
+      return string;
+    }
+
+    @Nullable String readNullableString() throws IOException {
+      int index = readVarInt(buffer) - 1;
+      if (index == -1) return null;
+      if (index < 0 || index >= table.length)
+        throw new IOException("Invalid string index " + index);
+      return table[index];
+    }
+
+    String decode(int length) {
+      if (buffer.hasArray()) {
+        int offset = buffer.arrayOffset() + buffer.position();
+        buffer.position(buffer.position() + length);
+        return new String(buffer.array(), offset, length, StandardCharsets.UTF_8);
+      }
+      byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int readLength() throws IOException {
+      int length = readVarInt(buffer);
+      // every element occupies at least one byte, thus corrupt lengths are detected early
+      if (length < 0 || length > buffer.remaining())
+        throw new IOException("Invalid length " + length);
+      return length;
+    }
+  }
+
+}
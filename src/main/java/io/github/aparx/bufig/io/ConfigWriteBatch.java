@@ -0,0 +1,167 @@
+package io.github.aparx.bufig.io;
+
+import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batch of file writes, which are made durable together rather than one by one.
+ * <p>On commit, all contents are first written to temporary files without being forced.
+ * The temporary files are then forced concurrently, allowing the file system to coalesce
+ * them into a shared journal commit, before they are moved onto their targets. Lastly,
+ * every distinct directory is forced once, instead of once per file.
+ * <p>This is not a single durability barrier: Java offers no portable call syncing many
+ * files at once, thus every temporary file is still forced on its own, only concurrently
+ * with the others. Whether these forces are coalesced depends on the file system.
+ * <p>Each write has its own future, so a failing write never fails the entire batch.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-28 19:02
+ * @see ConfigFiles
+ * @since 1.0
+ */
+public final class ConfigWriteBatch {
+
+  private final @NonNull Executor executor;
+
+  private final List<@NonNull Entry> entries = new ArrayList<>();
+
+  private boolean committed;
+
+  /** Creates a batch that forces its files on the committing thread. */
+  public ConfigWriteBatch() {
+    this(Runnable::run);
+  }
+
+  public ConfigWriteBatch(@NonNull Executor executor) {
+    Preconditions.checkNotNull(executor, "Executor must not be null");
+    this.executor = executor;
+  }
+
+  /**
+   * Adds a write of {@code bytes} to {@code target} to this batch.
+   *
+   * @param target the file to replace
+   * @param bytes  the contents to write, which must not be modified afterwards
+   * @return the future completed once the write is durable or has failed
+   * @throws IllegalStateException if this batch has already been committed
+   */
+  @CanIgnoreReturnValue
+  public synchronized CompletableFuture<Void> add(@NonNull Path target, byte @NonNull [] bytes) {
+    Preconditions.checkNotNull(target, "Target must not be null");
+    Preconditions.checkNotNull(bytes, "Bytes must not be null");
+    Preconditions.checkState(!committed, "Batch has already been committed");
+    Entry entry = new Entry(target, bytes);
+    entries.add(entry);
+    return entry.future;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Writes all files of this batch and waits for them to become durable.
+   *
+   * @throws IllegalStateException if this batch has already been committed
+   */
+  public void commit() {
+    List<Entry> entries;
+    synchronized (this) {
+      Preconditions.checkState(!committed, "Batch has already been committed");
+      committed = true;
+      entries = List.copyOf(this.entries);
+    }
+    for (Entry entry : entries) {
+      try {
+        entry.temp = ConfigFiles.writeTemporary(entry.target, entry.bytes, false);
+      } catch (IOException | RuntimeException e) {
+        entry.fail(e);
+      }
+      if (!entry.isPending()) entry.forced.complete(null);
+    }
+    for (Entry entry : entries) {
+      if (!entry.isPending()) continue;
+      try {
+        executor.execute(entry::force);
+      } catch (RejectedExecutionException e) {
+        break;
+      }
+    }
+    // forces not yet started are run by this thread, so a saturated executor never blocks
+    for (Entry entry : entries)
+      if (entry.isPending()) entry.force();
+    for (Entry entry : entries)
+      entry.forced.join();
+    Set<Path> directories = new LinkedHashSet<>();
+    for (Entry entry : entries) {
+      if (!entry.isPending()) continue;
+      try {
+        ConfigFiles.replace(entry.temp, entry.target);
+        Path directory = entry.target.toAbsolutePath().getParent();
+        if (directory != null) directories.add(directory);
+      } catch (IOException | RuntimeException e) {
+        entry.fail(e);
+      }
+    }
+    directories.forEach(ConfigFiles::forceDirectory);
+    for (Entry entry : entries)
+      entry.future.complete(null);
+  }
+
+  private static final class Entry {
+    private final @NonNull Path target;
+    private final byte @NonNull [] bytes;
+    private final @NonNull CompletableFuture<Void> future = new CompletableFuture<>();
+    private final @NonNull CompletableFuture<Void> forced = new CompletableFuture<>();
+    private final AtomicBoolean forcing = new AtomicBoolean();
+    private volatile @Nullable Path temp;
+
+    private Entry(@NonNull Path target, byte @NonNull [] bytes) {
+      this.target = target;
+      this.bytes = bytes;
+    }
+
+    boolean isPending() {
+      return !future.isDone();
+    }
+
+    void force() {
+      if (!forcing.compareAndSet(false, true)) return;
+      try {
+        ConfigFiles.force(Objects.requireNonNull(temp));
+      } catch (IOException | RuntimeException e) {
+        fail(e);
+      } finally {
+        forced.complete(null);
+      }
+    }
+
+    void fail(@NonNull Throwable throwable) {
+      Path temp = this.temp;
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException e) {
+          throwable.addSuppressed(e);
+        }
+      }
+      future.completeExceptionally(throwable);
+    }
+  }
+
+}
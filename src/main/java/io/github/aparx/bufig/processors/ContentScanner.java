@@ -1,10 +1,14 @@
 package io.github.aparx.bufig.processors;
 
+import com.google.common.io.CharStreams;
 import io.github.aparx.bufig.Config;
 import io.github.aparx.bufig.processors.results.ContentScan;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import javax.annotation.CheckReturnValue;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 
 /**
  * Lexical analysis scanner for each line of (raw) configuration content.
@@ -22,4 +26,20 @@ public interface ContentScanner<T extends Config> {
 
   ContentScan scan(@NonNull T caller, @NonNull String content);
 
+  /**
+   * Returns a streaming scan reading its lines from {@code reader} as they are processed,
+   * which can only be processed once. By default, the whole content is read first.
+   *
+   * @param caller the config scanning the content
+   * @param reader the reader to read the content from
+   * @return the scan of the content
+   */
+  default ContentScan scan(@NonNull T caller, @NonNull Reader reader) {
+    try {
+      return scan(caller, CharStreams.toString(reader));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
 }
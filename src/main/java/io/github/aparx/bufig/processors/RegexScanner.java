@@ -11,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.io.Reader;
 import java.util.Iterator;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -49,6 +50,19 @@ public class RegexScanner<T extends Config> implements ContentScanner<T> {
     };
   }
 
+  @Override
+  public ContentScan scan(@NonNull T caller, @NonNull Reader reader) {
+    Preconditions.checkNotNull(caller, "Caller must not be null");
+    Preconditions.checkNotNull(reader, "Reader must not be null");
+    return new ContentScan(reader) {
+
+      @Override
+      public @NonNull Iterator<? extends ScannedLine> createProcess() {
+        return new RegexLineIterator(caller, this);
+      }
+    };
+  }
+
   @Getter
   @RequiredArgsConstructor
   public static final class ScanContext<T extends Config> {
@@ -2,26 +2,33 @@ package io.github.aparx.bufig.processors.results;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import lombok.Getter;
-import lombok.experimental.Accessors;
+import com.google.common.collect.Iterators;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
 /**
- * Abstract class representing a scan of content that can always be redone from start to
- * finish, not being the result of a scan but a way to invoke it.
- * <p>All (default) operations executed through a scan will have no effect on the scan
- * itself, providing the ability to reuse it as often as needed.
+ * Abstract class representing a scan of content, not being the result of a scan but a way
+ * to invoke it.
+ * <p>A scan either holds its content in memory or streams it from a {@code Reader}. A
+ * scan of in-memory content can be redone from start to finish, as all (default)
+ * operations executed through it have no effect on the scan itself. A streaming scan
+ * reads its reader as it is processed, thus it can only be processed once, and
+ * operations requiring the whole content, such as {@code getContent} and
+ * {@code getLines}, fail (see {@link #isStreaming()}).
  * <p>A scan contains a method called {@code createProcess}, which allocates a new
  * iterator that can be used to manually map each line to a {@code ScannedLine} (being the
  * token for a literal content line).
  * <p>To avoid having to collect all values of an iterator by yourself, there also is a
  * {@code collectProcess} method, which by default creates a new iterator using {@code
  * createIterator} to then collect each iteration into a list.
+ * <p>Lines are read one by one through a {@code LineCursor}, such that processors working
+ * in a single forward pass never hold all lines in memory.
  *
  * @author aparx (Vinzent Z.)
  * @version 2023-11-21 00:30
@@ -29,21 +36,75 @@ import java.util.Objects;
  * @see #collectProcess()
  * @since 1.0-SNAPSHOT
  */
-@Getter
-@Accessors(makeFinal = true)
 public abstract class ContentScan implements Iterable<@NonNull String> {
 
-  private final @NonNull String content;
-  private final ImmutableList<@NonNull String> lines;
+  private final @Nullable CharSequence content;
 
-  public ContentScan(@NonNull String content) {
+  private @Nullable Reader reader;
+
+  private @Nullable ImmutableList<@NonNull String> lines;
+
+  public ContentScan(@NonNull CharSequence content) {
+    Preconditions.checkNotNull(content, "Content must not be null");
     this.content = content;
-    this.lines = ImmutableList.copyOf(toLines(content));
+  }
+
+  /**
+   * Creates a streaming scan, whose lines are read from {@code reader} as they are
+   * processed. Contrary to scans of in-memory content, a streaming scan can only be
+   * processed once.
+   *
+   * @param reader the reader to read the content from
+   */
+  public ContentScan(@NonNull Reader reader) {
+    Preconditions.checkNotNull(reader, "Reader must not be null");
+    this.content = null;
+    this.reader = reader;
   }
 
   public static String @NonNull [] toLines(@NonNull String content) {
     Preconditions.checkNotNull(content, "Content must not be null");
-    return content.split("\r?\n");
+    return Iterators.toArray(LineCursor.of(content), String.class);
+  }
+
+  /**
+   * Returns a new cursor over the lines of the content, which are read one by one.
+   *
+   * @return the new line cursor
+   * @throws IllegalStateException if this scan is streaming and has already been processed
+   */
+  public synchronized @NonNull LineCursor cursor() {
+    if (content != null) return LineCursor.of(content);
+    Reader reader = this.reader;
+    Preconditions.checkState(reader != null, "Streaming scan has already been processed");
+    this.reader = null;
+    return LineCursor.of(reader);
+  }
+
+  /** Returns true if this scan reads its content from a reader and can be processed once. */
+  public boolean isStreaming() {
+    return content == null;
+  }
+
+  /**
+   * Returns the scanned content.
+   *
+   * @throws IllegalStateException if this scan is streaming
+   */
+  public @NonNull String getContent() {
+    Preconditions.checkState(content != null, "Streaming scan has no content");
+    return content.toString();
+  }
+
+  /**
+   * Returns all lines of the content, which are split once requested.
+   *
+   * @throws IllegalStateException if this scan is streaming
+   */
+  public synchronized @NonNull ImmutableList<@NonNull String> getLines() {
+    Preconditions.checkState(content != null, "Streaming scan has no content");
+    if (lines == null) lines = ImmutableList.copyOf(cursor());
+    return lines;
   }
 
   /**
@@ -63,15 +124,16 @@ public abstract class ContentScan implements Iterable<@NonNull String> {
    * lines themselves are deterministic.
    */
   public @NonNull List<ScannedLine> collectProcess() {
-    ArrayList<ScannedLine> lineList = new ArrayList<>(lines.size());
+    ArrayList<ScannedLine> lineList = new ArrayList<>();
     for (var process = createProcess(); process.hasNext(); )
       lineList.add(Objects.requireNonNull(process.next()));
     lineList.trimToSize();
     return lineList;
   }
 
+  /** Returns a new cursor over the lines of the content, equivalent to {@link #cursor()}. */
   @Override
   public @NonNull Iterator<@NonNull String> iterator() {
-    return lines.iterator();
+    return cursor();
   }
 }
@@ -0,0 +1,199 @@
+package io.github.aparx.bufig.processors.results;
+
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only cursor over the lines of content, reading one line at a time directly from
+ * a {@code CharSequence} (such as a {@code String} or {@code CharBuffer}) or a
+ * {@code Reader}, without materializing all lines at once.
+ * <p>Lines are split exactly like {@code content.split("\r?\n")}: a carriage return is
+ * only removed in front of a line feed and trailing empty lines are omitted, except for
+ * empty content, which consists of a single empty line.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-30 18:40
+ * @see ContentScan#cursor()
+ * @since 1.0
+ */
+public abstract class LineCursor implements Iterator<@NonNull String> {
+
+  private @Nullable String next;
+
+  /** The next non-empty line, read ahead while determining whether empty lines trail. */
+  private @Nullable String lookahead;
+
+  /** The amount of empty lines to return before {@code lookahead}. */
+  private int emptyLines;
+
+  private int rawLines;
+
+  private int index;
+
+  public static @NonNull LineCursor of(@NonNull CharSequence content) {
+    Preconditions.checkNotNull(content, "Content must not be null");
+    return new SequenceCursor(content);
+  }
+
+  /**
+   * Returns a cursor reading lines from {@code reader} as they are requested. The reader
+   * is not closed by the cursor.
+   *
+   * @param reader the reader to read from
+   * @return the cursor, throwing {@code UncheckedIOException} if the reader fails
+   */
+  public static @NonNull LineCursor of(@NonNull Reader reader) {
+    Preconditions.checkNotNull(reader, "Reader must not be null");
+    return new ReaderCursor(reader);
+  }
+
+  /**
+   * Reads the next raw line, being the content up to the next line feed (exclusive) with
+   * a preceding carriage return removed, or the remaining content if there is none.
+   *
+   * @return the next raw line, or null once the content after the last line feed has
+   * been returned
+   */
+  protected abstract @Nullable String readRaw() throws IOException;
+
+  /** Returns the index of the line returned by the next call to {@link #next()}. */
+  public @NonNegative int getIndex() {
+    return index;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) next = fetch();
+    return next != null;
+  }
+
+  @Override
+  public @NonNull String next() {
+    if (!hasNext()) throw new NoSuchElementException();
+    String line = next;
+    next = null;
+    ++index;
+    return line;
+  }
+
+  private @Nullable String fetch() {
+    if (emptyLines > 0) {
+      --emptyLines;
+      return "";
+    }
+    if (lookahead != null) {
+      String line = lookahead;
+      lookahead = null;
+      return line;
+    }
+    try {
+      int empty = 0;
+      for (String raw; (raw = readRaw()) != null; ) {
+        ++rawLines;
+        if (raw.isEmpty()) {
+          ++empty;
+          continue;
+        }
+        if (empty == 0) return raw;
+        lookahead = raw;
+        emptyLines = empty - 1;
+        return "";
+      }
+      // empty content consists of one empty line, otherwise trailing empty lines are omitted
+      return rawLines == 1 && empty == 1 ? "" : null;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String stripCarriageReturn(@NonNull String line) {
+    int length = line.length();
+    return length != 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line;
+  }
+
+  private static final class SequenceCursor extends LineCursor {
+
+    private final @NonNull CharSequence content;
+
+    private int position;
+
+    SequenceCursor(@NonNull CharSequence content) {
+      this.content = content;
+    }
+
+    @Override
+    protected @Nullable String readRaw() {
+      int length = content.length();
+      if (position > length) return null;
+      int end = indexOfLineFeed(position);
+      String line;
+      if (end < 0) {
+        line = content.subSequence(position, length).toString();
+        position = length + 1;
+        return line;
+      }
+      int lineEnd = end > position && content.charAt(end - 1) == '\r' ? end - 1 : end;
+      line = content.subSequence(position, lineEnd).toString();
+      position = end + 1;
+      return line;
+    }
+
+    private int indexOfLineFeed(int from) {
+      if (content instanceof String)
+        return ((String) content).indexOf('\n', from);
+      for (int i = from, n = content.length(); i < n; ++i)
+        if (content.charAt(i) == '\n') return i;
+      return -1;
+    }
+  }
+
+  private static final class ReaderCursor extends LineCursor {
+
+    private final @NonNull Reader reader;
+
+    private final char[] buffer = new char[8192];
+
+    private final StringBuilder line = new StringBuilder();
+
+    private int position, limit;
+
+    private boolean ended;
+
+    ReaderCursor(@NonNull Reader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    protected @Nullable String readRaw() throws IOException {
+      if (ended) return null;
+      line.setLength(0);
+      for (; ; ) {
+        if (position == limit) {
+          limit = reader.read(buffer, 0, buffer.length);
+          position = 0;
+          if (limit <= 0) {
+            limit = 0;
+            ended = true;
+            return line.toString();
+          }
+        }
+        int start = position;
+        while (position < limit && buffer[position] != '\n') ++position;
+        line.append(buffer, start, position - start);
+        if (position < limit) {
+          ++position;
+          return stripCarriageReturn(line.toString());
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.handler.BoundedConfigMap;
+import io.github.aparx.bufig.io.ConfigSaveQueue;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 15:20
+ * @since 1.0
+ */
+public class TestBoundedConfigMap {
+
+  private static BoundedConfigMap<YamlConfig> newHandler(Path directory, Executor executor) {
+    return new BoundedConfigMap<>(
+        (id) -> new YamlConfig(id, directory.resolve(id + ".yml").toFile()),
+        executor, 1, null);
+  }
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-bounded");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  @Test
+  public void saveOnEviction() throws IOException {
+    Path directory = newDirectory();
+    BoundedConfigMap<YamlConfig> handler = newHandler(directory, Runnable::run);
+    YamlConfig config = handler.getOrCreate("a");
+    config.set("value", 1);
+    handler.getOrCreate("b");
+    Assertions.assertEquals(1, handler.getEvictionCount());
+    Assertions.assertFalse(handler.contains("a"));
+    Assertions.assertTrue(Files.readString(directory.resolve("a.yml")).contains("value: 1"));
+    // the saved config is loaded again from its file
+    YamlConfig loaded = handler.getOrCreate("a");
+    Assertions.assertNotSame(config, loaded);
+    Assertions.assertEquals(1, loaded.getInt("value"));
+    Assertions.assertFalse(loaded.isDirty());
+    Assertions.assertEquals(0, handler.getHitCount());
+    Assertions.assertEquals(3, handler.getMissCount());
+  }
+
+  @Test
+  public void recoverPendingSave() throws Exception {
+    Path directory = newDirectory();
+    Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    BoundedConfigMap<YamlConfig> handler = newHandler(directory, tasks::add);
+    YamlConfig config = handler.getOrCreate("a");
+    config.set("value", 1);
+    handler.getOrCreate("b");
+    Assertions.assertFalse(handler.contains("a"));
+    Assertions.assertFalse(Files.exists(directory.resolve("a.yml")));
+    // the save has not run yet, thus the evicted instance is put back as is
+    Assertions.assertSame(config, handler.getOrCreate("a"));
+    Assertions.assertEquals(1, config.getInt("value"));
+    for (Runnable task; (task = tasks.poll()) != null; ) task.run();
+    Assertions.assertTrue(Files.readString(directory.resolve("a.yml")).contains("value: 1"));
+    Assertions.assertSame(config, handler.getOrCreate("a"));
+    Assertions.assertEquals(1, handler.getHitCount());
+  }
+
+  @Test
+  public void recoverQueuedSave() throws Exception {
+    Path directory = newDirectory();
+    try (ConfigSaveQueue queue = new ConfigSaveQueue(Duration.ofHours(1))) {
+      BoundedConfigMap<YamlConfig> handler = newHandler(directory, Runnable::run);
+      handler.setSaveQueue(queue);
+      YamlConfig config = handler.getOrCreate("a");
+      config.set("value", 1);
+      config.save();
+      // the config is not dirty anymore, while its contents are not written yet
+      Assertions.assertFalse(config.isDirty());
+      handler.getOrCreate("b");
+      Assertions.assertFalse(handler.contains("a"));
+      Assertions.assertFalse(Files.exists(directory.resolve("a.yml")));
+      Assertions.assertSame(config, handler.getOrCreate("a"));
+      Assertions.assertEquals(1, config.getInt("value"));
+      handler.getOrCreate("b");
+      handler.flush().get(10, TimeUnit.SECONDS);
+      Assertions.assertFalse(queue.isPending(directory.resolve("a.yml")));
+      Assertions.assertTrue(Files.readString(directory.resolve("a.yml")).contains("value: 1"));
+      YamlConfig loaded = handler.getOrCreate("a");
+      Assertions.assertNotSame(config, loaded);
+      Assertions.assertEquals(1, loaded.getInt("value"));
+    }
+  }
+
+  @Test
+  public void recoverFailedSave() throws Exception {
+    Path directory = newDirectory();
+    // the file of the config cannot be written while its parent is a regular file
+    Path parent = directory.resolve("blocked");
+    Files.createFile(parent);
+    BoundedConfigMap<YamlConfig> handler = newHandler(parent, Runnable::run);
+    YamlConfig config = handler.getOrCreate("a");
+    config.set("value", 1);
+    handler.getOrCreate("b");
+    Assertions.assertFalse(handler.contains("a"));
+    Assertions.assertSame(config, handler.getOrCreate("a"));
+    Assertions.assertTrue(config.isDirty());
+    // a failed save is retried once the handler is flushed
+    handler.getOrCreate("b");
+    Files.delete(parent);
+    Files.createDirectory(parent);
+    handler.flush().get(10, TimeUnit.SECONDS);
+    Assertions.assertTrue(Files.readString(parent.resolve("a.yml")).contains("value: 1"));
+    Assertions.assertFalse(config.isDirty());
+    Assertions.assertNotSame(config, handler.getOrCreate("a"));
+  }
+
+}
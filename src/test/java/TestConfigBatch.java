@@ -0,0 +1,139 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.handler.ConfigBatchResult;
+import io.github.aparx.bufig.handler.ConfigMap;
+import io.github.aparx.bufig.io.ConfigWriteBatch;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 17:00
+ * @since 1.0
+ */
+public class TestConfigBatch {
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-batch");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  private static List<String> listFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map((file) -> file.getFileName().toString()).sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static ConfigMap<YamlConfig> newMap(Path directory, Executor executor) {
+    return new ConfigMap<>(
+        (id) -> new YamlConfig(id, directory.resolve(id + ".yml").toFile()), executor);
+  }
+
+  @Test
+  public void writeBatch() throws Exception {
+    Path directory = newDirectory();
+    // the parent of this target is a file, thus only its write fails
+    Files.writeString(directory.resolve("file"), "");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ConfigWriteBatch batch = new ConfigWriteBatch(executor);
+      CompletableFuture<Void> a = batch.add(directory.resolve("a.yml"), "a".getBytes());
+      CompletableFuture<Void> b = batch.add(directory.resolve("b.yml"), "b".getBytes());
+      CompletableFuture<Void> failed =
+          batch.add(directory.resolve("file").resolve("c.yml"), "c".getBytes());
+      Assertions.assertEquals(3, batch.size());
+      Assertions.assertFalse(a.isDone());
+      batch.commit();
+      a.get(10, TimeUnit.SECONDS);
+      b.get(10, TimeUnit.SECONDS);
+      Assertions.assertTrue(failed.isCompletedExceptionally());
+      Assertions.assertEquals("a", Files.readString(directory.resolve("a.yml")));
+      Assertions.assertEquals("b", Files.readString(directory.resolve("b.yml")));
+      // neither failed writes nor committed ones leave temporary files behind
+      Assertions.assertEquals(List.of("a.yml", "b.yml", "file"), listFiles(directory));
+      Assertions.assertThrows(IllegalStateException.class, batch::commit);
+      Assertions.assertThrows(IllegalStateException.class,
+          () -> batch.add(directory.resolve("d.yml"), "d".getBytes()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void loadAll() throws Exception {
+    Path directory = newDirectory();
+    for (int i = 0; i < 20; ++i)
+      Files.writeString(directory.resolve("config-" + i + ".yml"), "value: " + i + "\n");
+    Files.writeString(directory.resolve("broken.yml"), "value: [unclosed\n");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ConfigMap<YamlConfig> map = newMap(directory, executor);
+      Set<String> ids = Stream.concat(Stream.of("broken", "missing"),
+              Stream.iterate(0, (i) -> i + 1).limit(20).map((i) -> "config-" + i))
+          .collect(Collectors.toSet());
+      ConfigBatchResult result = map.loadAll(ids).get(10, TimeUnit.SECONDS);
+      // configs without a file are loaded empty, while unparseable ones fail
+      Assertions.assertFalse(result.isSuccessful());
+      Assertions.assertEquals(Set.of("broken"), result.getFailures().keySet());
+      Assertions.assertEquals(21, result.getSucceeded().size());
+      Assertions.assertTrue(result.getSucceeded().contains("missing"));
+      Assertions.assertFalse(map.contains("broken"));
+      for (int i = 0; i < 20; ++i)
+        Assertions.assertEquals(i, map.get("config-" + i).getInt("value"));
+      // reloading discards unsaved modifications and fails for files broken since
+      map.get("config-0").set("value", 100);
+      Files.writeString(directory.resolve("config-1.yml"), "value: [unclosed\n");
+      Files.writeString(directory.resolve("config-2.yml"), "value: 200\n");
+      result = map.reloadAll().get(10, TimeUnit.SECONDS);
+      Assertions.assertEquals(Set.of("config-1"), result.getFailures().keySet());
+      Assertions.assertEquals(20, result.getSucceeded().size());
+      Assertions.assertEquals(0, map.get("config-0").getInt("value"));
+      Assertions.assertEquals(200, map.get("config-2").getInt("value"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void saveAll() throws Exception {
+    for (boolean groupSync : new boolean[]{false, true}) {
+      Path directory = newDirectory();
+      Files.writeString(directory.resolve("file"), "");
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        ConfigMap<YamlConfig> map = newMap(directory, executor);
+        for (int i = 0; i < 20; ++i)
+          map.getOrCreate("config-" + i).set("value", i);
+        // the parent of this file is a file, thus it cannot be written
+        YamlConfig failing =
+            new YamlConfig("failing", directory.resolve("file").resolve("a.yml").toFile());
+        failing.set("value", -1);
+        map.add(failing);
+        ConfigBatchResult result = map.saveAll(groupSync).get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(Set.of("failing"), result.getFailures().keySet(),
+            result::toString);
+        Assertions.assertEquals(20, result.getSucceeded().size());
+        for (int i = 0; i < 20; ++i) {
+          Assertions.assertEquals("value: " + i,
+              Files.readString(directory.resolve("config-" + i + ".yml")));
+          Assertions.assertFalse(map.get("config-" + i).isDirty());
+        }
+        Assertions.assertTrue(failing.isDirty());
+        Assertions.assertEquals(21, listFiles(directory).size());
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 16:30
+ * @since 1.0
+ */
+public class TestConfigDirty {
+
+  /** Modification time of files set back, such that any rewrite of them is detected. */
+  private static final long PAST = 1_000_000_000_000L;
+
+  private static File newFile() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-dirty");
+    directory.toFile().deleteOnExit();
+    return directory.resolve("test.yml").toFile();
+  }
+
+  @Test
+  public void trackModifications() throws IOException {
+    YamlConfig config = new YamlConfig("test", newFile());
+    Assertions.assertFalse(config.isDirty());
+    config.set("value", 1, "docs");
+    Assertions.assertTrue(config.isDirty());
+    config.save();
+    Assertions.assertFalse(config.isDirty());
+    // documentation equal to the current one is no modification
+    config.setDocs("value", "docs");
+    Assertions.assertFalse(config.isDirty());
+    config.setDocs("value", "other");
+    Assertions.assertTrue(config.isDirty());
+    config.load();
+    Assertions.assertFalse(config.isDirty());
+    config.setHeader(new String[]{"header"});
+    Assertions.assertTrue(config.isDirty());
+    config.loadFromString("value: 2\n");
+    Assertions.assertTrue(config.isDirty());
+  }
+
+  @Test
+  public void saveIfDirty() throws IOException {
+    File file = newFile();
+    YamlConfig config = new YamlConfig("test", file);
+    // configs without a file are saved, even if unmodified
+    Assertions.assertTrue(config.saveIfDirty());
+    Assertions.assertTrue(file.exists());
+    Assertions.assertFalse(config.saveIfDirty());
+    config.set("value", 1);
+    Assertions.assertTrue(config.saveIfDirty());
+    Assertions.assertFalse(config.isDirty());
+    Assertions.assertFalse(config.saveIfDirty());
+    Assertions.assertEquals("value: 1", Files.readString(file.toPath()));
+  }
+
+  @Test
+  public void skipUnchanged() throws IOException {
+    File file = newFile();
+    YamlConfig config = new YamlConfig("test", file);
+    config.set("value", 1);
+    config.save();
+    Assertions.assertTrue(file.setLastModified(PAST));
+    // the contents are equal, thus the file is not written although the config is dirty
+    config.set("value", 1);
+    Assertions.assertTrue(config.isDirty());
+    config.save();
+    Assertions.assertFalse(config.isDirty());
+    Assertions.assertEquals(PAST, file.lastModified());
+    // files changed externally are compared by their contents
+    Files.writeString(file.toPath(), "value: 2\n");
+    Assertions.assertTrue(file.setLastModified(PAST));
+    config.save();
+    Assertions.assertEquals("value: 1", Files.readString(file.toPath()));
+    Assertions.assertNotEquals(PAST, file.lastModified());
+    Assertions.assertTrue(file.setLastModified(PAST));
+    YamlConfig other = new YamlConfig("test", file);
+    other.load();
+    other.save();
+    Assertions.assertEquals(PAST, file.lastModified());
+  }
+
+}
@@ -0,0 +1,107 @@
+import io.github.aparx.bufig.configurable.Configurable;
+import io.github.aparx.bufig.configurable.ConfigurableHandle;
+import io.github.aparx.bufig.configurable.field.ConfigField;
+import io.github.aparx.bufig.configurable.field.ConfigMapping;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 15:45
+ * @since 1.0
+ */
+public class TestConfigField {
+
+  private static ConfigField<Fields> field(String name) throws NoSuchFieldException {
+    return new ConfigField<>(Fields.class.getDeclaredField(name));
+  }
+
+  @Test
+  public void primitives() throws NoSuchFieldException {
+    Fields fields = new Fields();
+    ConfigField<Fields> intField = field("intValue");
+    Assertions.assertEquals(5, intField.get(fields));
+    intField.set(fields, 7);
+    Assertions.assertEquals(7, fields.intValue);
+    // boxed values of smaller types are widened like through reflection
+    intField.set(fields, (short) 8);
+    Assertions.assertEquals(8, fields.intValue);
+    intField.set(fields, 'a');
+    Assertions.assertEquals('a', fields.intValue);
+    intField.set(fields, null);
+    Assertions.assertEquals(0, fields.intValue);
+
+    ConfigField<Fields> doubleField = field("doubleValue");
+    Assertions.assertEquals(1.5, doubleField.get(fields));
+    doubleField.set(fields, 3);
+    Assertions.assertEquals(3.0, fields.doubleValue);
+    doubleField.set(fields, 2.5f);
+    Assertions.assertEquals(2.5, fields.doubleValue);
+
+    ConfigField<Fields> booleanField = field("booleanValue");
+    Assertions.assertEquals(true, booleanField.get(fields));
+    booleanField.set(fields, false);
+    Assertions.assertFalse(fields.booleanValue);
+
+    ConfigField<Fields> longField = field("longValue");
+    longField.set(fields, 4);
+    Assertions.assertEquals(4L, longField.get(fields));
+  }
+
+  @Test
+  public void references() throws NoSuchFieldException {
+    Fields fields = new Fields();
+    ConfigField<Fields> stringField = field("stringValue");
+    Assertions.assertEquals("text", stringField.get(fields));
+    stringField.set(fields, "other");
+    Assertions.assertEquals("other", fields.stringValue);
+    stringField.set(fields, null);
+    Assertions.assertNull(fields.stringValue);
+
+    ConfigField<Fields> numberField = field("numberValue");
+    numberField.set(fields, 2L);
+    Assertions.assertEquals(2L, fields.numberValue);
+
+    ConfigField<Fields> referenceField = field("referenceValue");
+    Assertions.assertEquals("reference", referenceField.get(fields));
+    referenceField.set(fields, "changed");
+    Assertions.assertEquals("changed", fields.referenceValue.get());
+  }
+
+  @Test
+  public void wrongType() throws NoSuchFieldException {
+    Fields fields = new Fields();
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> field("intValue").set(fields, 1L));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> field("intValue").set(fields, "1"));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> field("booleanValue").set(fields, 1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> field("stringValue").set(fields, 1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> field("numberValue").set(fields, "1"));
+    Assertions.assertEquals(5, fields.intValue);
+    Assertions.assertEquals("text", fields.stringValue);
+  }
+
+  /** Configurable declaring fields of various types, accessed without a config. */
+  private static final class Fields implements Configurable {
+    @ConfigMapping private int intValue = 5;
+    @ConfigMapping private long longValue;
+    @ConfigMapping private double doubleValue = 1.5;
+    @ConfigMapping private boolean booleanValue = true;
+    @ConfigMapping private String stringValue = "text";
+    @ConfigMapping private Number numberValue = 1;
+    @ConfigMapping private AtomicReference<String> referenceValue =
+        new AtomicReference<>("reference");
+
+    @Override
+    public ConfigurableHandle<?> getHandle() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+import io.github.aparx.bufig.io.ConfigFiles;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 11:40
+ * @since 1.0
+ */
+public class TestConfigFiles {
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-files");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  private static List<String> listFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map((file) -> file.getFileName().toString()).sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static boolean isPosix() {
+    return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+  }
+
+  @Test
+  public void writeAtomically() throws IOException {
+    Path directory = newDirectory();
+    Path target = directory.resolve("nested").resolve("config.yml");
+    ConfigFiles.writeAtomically(target, "first".getBytes());
+    Assertions.assertEquals("first", Files.readString(target));
+    ConfigFiles.writeAtomically(target, "second".getBytes());
+    Assertions.assertEquals("second", Files.readString(target));
+    // no temporary files are left behind
+    Assertions.assertEquals(List.of("config.yml"), listFiles(target.getParent()));
+  }
+
+  @Test
+  public void writeTemporary() throws IOException {
+    Path directory = newDirectory();
+    Path target = directory.resolve("config.yml");
+    Path first = ConfigFiles.writeTemporary(target, "first".getBytes(), false);
+    Path second = ConfigFiles.writeTemporary(target, "second".getBytes(), true);
+    Assertions.assertNotEquals(first, second);
+    Assertions.assertEquals(directory, first.getParent());
+    Assertions.assertEquals("first", Files.readString(first));
+    Assertions.assertEquals("second", Files.readString(second));
+    Assertions.assertFalse(Files.exists(target));
+  }
+
+  @Test
+  public void keepPermissions() throws IOException {
+    if (!isPosix()) return;
+    Path directory = newDirectory();
+    Path target = directory.resolve("config.yml");
+    Files.writeString(target, "contents");
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw-r--");
+    Files.setPosixFilePermissions(target, permissions);
+    ConfigFiles.writeAtomically(target, "replaced".getBytes());
+    Assertions.assertEquals("replaced", Files.readString(target));
+    Assertions.assertEquals(permissions, Files.getPosixFilePermissions(target));
+    permissions = PosixFilePermissions.fromString("rw-r-----");
+    Files.setPosixFilePermissions(target, permissions);
+    ConfigFiles.writeAtomically(target, "again".getBytes());
+    Assertions.assertEquals(permissions, Files.getPosixFilePermissions(target));
+  }
+
+  @Test
+  public void defaultPermissions() throws IOException {
+    if (!isPosix()) return;
+    Path directory = newDirectory();
+    // new files are created with the same permissions as any other new file
+    Path reference = Files.createFile(directory.resolve("reference"));
+    Path target = directory.resolve("config.yml");
+    ConfigFiles.writeAtomically(target, "contents".getBytes());
+    Assertions.assertEquals(Files.getPosixFilePermissions(reference),
+        Files.getPosixFilePermissions(target));
+  }
+
+}
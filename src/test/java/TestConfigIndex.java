@@ -0,0 +1,169 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.io.ConfigIndex;
+import io.github.aparx.bufig.io.ConfigSnapshot;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 11:40
+ * @since 1.0
+ */
+public class TestConfigIndex {
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-index");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  /** Saves a config with an index, such that the index holds an entry of its file. */
+  private static ConfigIndex saveIndexed(Path directory) throws IOException {
+    ConfigIndex index = ConfigIndex.open(directory.resolve("index.bin"));
+    YamlConfig config = new YamlConfig("config", directory.resolve("config.yml").toFile());
+    config.setIndex(index);
+    config.set("name", "value");
+    config.set("list", List.of(1, 2));
+    config.setDocs("name", "the name");
+    config.save();
+    Assertions.assertEquals(1, index.size());
+    index.save();
+    return ConfigIndex.open(index.getFile());
+  }
+
+  @Test
+  public void loadFromIndex() throws IOException {
+    Path directory = newDirectory();
+    ConfigIndex index = saveIndexed(directory);
+    Assertions.assertEquals(1, index.size());
+    CountingConfig config = new CountingConfig(directory.resolve("config.yml").toFile());
+    config.setIndex(index);
+    config.load();
+    Assertions.assertEquals(0, config.parsed);
+    Assertions.assertEquals("value", config.getString("name"));
+    Assertions.assertEquals(List.of(1, 2), config.get("list"));
+    Assertions.assertArrayEquals(new String[]{"the name"}, config.getDocs("name"));
+    Assertions.assertFalse(config.isDirty());
+    Assertions.assertFalse(config.isFileChanged());
+  }
+
+  @Test
+  public void ignoreStaleIndex() throws IOException {
+    Path directory = newDirectory();
+    ConfigIndex index = saveIndexed(directory);
+    File file = directory.resolve("config.yml").toFile();
+    Files.writeString(file.toPath(), "name: other\n");
+    CountingConfig config = new CountingConfig(file);
+    config.setIndex(index);
+    config.load();
+    Assertions.assertEquals(1, config.parsed);
+    Assertions.assertEquals("other", config.getString("name"));
+    Assertions.assertNull(config.get("list"));
+    // the index is updated by the parsing load, thus the next load hits it
+    CountingConfig next = new CountingConfig(file);
+    next.setIndex(index);
+    next.load();
+    Assertions.assertEquals(0, next.parsed);
+    Assertions.assertEquals("other", next.getString("name"));
+  }
+
+  @Test
+  public void ignoreStaleIndexOfSameLength() throws IOException {
+    Path directory = newDirectory();
+    ConfigIndex index = saveIndexed(directory);
+    File file = directory.resolve("config.yml").toFile();
+    String contents = Files.readString(file.toPath());
+    Files.writeString(file.toPath(), contents.replace("value", "VALUE"));
+    Assertions.assertTrue(file.setLastModified(file.lastModified() - 10_000));
+    Assertions.assertNull(index.find("config", file));
+    CountingConfig config = new CountingConfig(file);
+    config.setIndex(index);
+    config.load();
+    Assertions.assertEquals(1, config.parsed);
+    Assertions.assertEquals("VALUE", config.getString("name"));
+  }
+
+  @Test
+  public void createSnapshotLazily() throws IOException {
+    Path directory = newDirectory();
+    ConfigIndex index = ConfigIndex.open(directory.resolve("index.bin"));
+    CountingConfig config = new CountingConfig(directory.resolve("config.yml").toFile());
+    config.setIndex(index);
+    config.set("name", "value");
+    config.save();
+    config.set("name", "other");
+    config.save();
+    // saving only records the state of the file
+    Assertions.assertEquals(0, config.snapshots);
+    Assertions.assertEquals(1, index.size());
+    index.save();
+    Assertions.assertEquals(1, config.snapshots);
+    // entries found before saving the index create their snapshot as well
+    config.set("name", "third");
+    config.save();
+    CountingConfig next = new CountingConfig(config.getFile());
+    next.setIndex(index);
+    next.load();
+    Assertions.assertEquals(2, config.snapshots);
+    Assertions.assertEquals(0, next.parsed);
+    Assertions.assertEquals("third", next.getString("name"));
+  }
+
+  @Test
+  public void dropModifiedSnapshot() throws IOException {
+    Path directory = newDirectory();
+    ConfigIndex index = ConfigIndex.open(directory.resolve("index.bin"));
+    CountingConfig config = new CountingConfig(directory.resolve("config.yml").toFile());
+    config.setIndex(index);
+    config.set("name", "value");
+    config.save();
+    // the snapshot would no longer correspond to the saved file
+    config.set("name", "unsaved");
+    index.save();
+    Assertions.assertEquals(0, config.snapshots);
+    Assertions.assertEquals(0, index.size());
+    Assertions.assertEquals(0, ConfigIndex.open(index.getFile()).size());
+    CountingConfig next = new CountingConfig(config.getFile());
+    next.setIndex(index);
+    next.load();
+    Assertions.assertEquals(1, next.parsed);
+    Assertions.assertEquals("value", next.getString("name"));
+  }
+
+  @Test
+  public void openCorrupted() throws IOException {
+    Path file = newDirectory().resolve("index.bin");
+    Files.write(file, new byte[]{1, 2, 3});
+    Assertions.assertEquals(0, ConfigIndex.open(file).size());
+  }
+
+  /** Config counting how often its file has been parsed and snapshots have been created. */
+  private static final class CountingConfig extends YamlConfig {
+    int parsed;
+    int snapshots;
+
+    CountingConfig(File file) {
+      super("config", file);
+    }
+
+    @Override
+    protected void loadFrom(Reader reader) throws IOException {
+      ++parsed;
+      super.loadFrom(reader);
+    }
+
+    @Override
+    public synchronized ConfigSnapshot createSnapshot() {
+      ++snapshots;
+      return super.createSnapshot();
+    }
+  }
+
+}
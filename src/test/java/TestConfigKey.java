@@ -0,0 +1,96 @@
+import io.github.aparx.bufig.ConfigKey;
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.ConfigSection;
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 15:40
+ * @since 1.0
+ */
+public class TestConfigKey {
+
+  private static YamlConfig newConfig() {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.set("a.b.value", 5);
+    config.set("a.b.name", "text");
+    return config;
+  }
+
+  @Test
+  public void sectionKey() {
+    YamlConfig config = newConfig();
+    ConfigSection section = config.getSection("a.b");
+    ConfigKey<Integer> key = section.createKey("value", ConfigKey.Codec.INT);
+    // paths of keys created through a section are relative to that section
+    Assertions.assertEquals(ConfigPath.of("a", "b", "value"), key.getPath());
+    Assertions.assertEquals("value", key.getKey());
+    Assertions.assertSame(config, key.getOwner().getRoot());
+    Assertions.assertEquals(5, key.get());
+    Assertions.assertTrue(key.isPresent());
+    key.set(6);
+    Assertions.assertEquals(6, config.getInt("a.b.value"));
+    Assertions.assertEquals(6, key.get());
+    config.set("a.b.value", 7);
+    Assertions.assertEquals(7, key.get());
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> ConfigKey.of(config, ConfigPath.of(), ConfigKey.Codec.INT));
+  }
+
+  @Test
+  public void rebind() {
+    YamlConfig config = newConfig();
+    ConfigKey<Integer> key = config.createKey("a.b.value", ConfigKey.Codec.INT);
+    Assertions.assertEquals(5, key.get());
+    // replacing a section advances the generation, thus the key binds the new section
+    int generation = config.getGeneration();
+    config.set("a.b", null);
+    Assertions.assertNotEquals(generation, config.getGeneration());
+    config.set("a.b.value", 8);
+    Assertions.assertEquals(8, key.get());
+    config.loadFromString("a:\n  b:\n    value: 9\n");
+    Assertions.assertEquals(9, key.get());
+    // missing sections are resolved again once created
+    config.set("a", null);
+    Assertions.assertFalse(key.isPresent());
+    Assertions.assertEquals(3, key.get(3));
+    config.set("a.b.value", 10);
+    Assertions.assertTrue(key.isPresent());
+    Assertions.assertEquals(10, key.get());
+    key.invalidate();
+    Assertions.assertEquals(10, key.get());
+  }
+
+  @Test
+  public void codecs() {
+    YamlConfig config = newConfig();
+    config.set("a.list", List.of(1, 2));
+    config.set("a.flag", true);
+    config.set("a.ratio", 0.5);
+    Assertions.assertEquals("text",
+        config.createKey("a.b.name", ConfigKey.Codec.STRING).get());
+    Assertions.assertEquals(List.of(1, 2),
+        config.createKey("a.list", ConfigKey.Codec.LIST).get());
+    Assertions.assertEquals(true, config.createKey("a.flag", ConfigKey.Codec.BOOLEAN).get());
+    Assertions.assertEquals(0.5, config.createKey("a.ratio", ConfigKey.Codec.DOUBLE).get());
+    // values of another type are neither present nor read, but replaced by the default
+    ConfigKey<Integer> mismatched = config.createKey("a.b.name", ConfigKey.Codec.INT);
+    Assertions.assertFalse(mismatched.isPresent());
+    Assertions.assertEquals(4, mismatched.get(4));
+    ConfigKey<String> typed =
+        config.createKey("a.b.name", ConfigKey.Codec.ofType(String.class));
+    Assertions.assertTrue(typed.isPresent());
+    Assertions.assertEquals("text", typed.get());
+    ConfigKey<Integer> other =
+        config.createKey("a.b.name", ConfigKey.Codec.ofType(Integer.class));
+    Assertions.assertFalse(other.isPresent());
+    Assertions.assertEquals(1, other.get(1));
+    Assertions.assertNull(config.createKey("a.missing", ConfigKey.Codec.OBJECT).get());
+  }
+
+}
@@ -0,0 +1,114 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.handler.ConfigMap;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 14:40
+ * @since 1.0
+ */
+public class TestConfigMap {
+
+  @Test
+  public void sharedLoad() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger created = new AtomicInteger();
+    AtomicInteger loaded = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ConfigMap<YamlConfig> map = new ConfigMap<>((id) -> {
+        created.incrementAndGet();
+        return new HookedConfig(id, (config) -> {
+          loaded.incrementAndGet();
+          started.countDown();
+          await(release);
+        });
+      }, executor);
+      List<CompletableFuture<YamlConfig>> futures = new ArrayList<>();
+      futures.add(map.getOrCreateAsync("config"));
+      Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+      for (int i = 0; i < 8; ++i)
+        futures.add(map.getOrCreateAsync("config"));
+      // synchronous callers on other threads join the load in flight as well
+      futures.add(CompletableFuture.supplyAsync(() -> map.getOrCreate("config")));
+      for (CompletableFuture<YamlConfig> future : futures)
+        Assertions.assertFalse(future.isDone());
+      release.countDown();
+      YamlConfig config = futures.get(0).get(10, TimeUnit.SECONDS);
+      for (CompletableFuture<YamlConfig> future : futures)
+        Assertions.assertSame(config, future.get(10, TimeUnit.SECONDS));
+      Assertions.assertSame(config, map.getOrCreateAsync("config").getNow(null));
+      Assertions.assertEquals(1, created.get());
+      Assertions.assertEquals(1, loaded.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void failedLoad() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    ConfigMap<YamlConfig> map = new ConfigMap<>((id) -> new HookedConfig(id, (config) -> {
+      if (created.incrementAndGet() == 1) throw new IllegalStateException("failure");
+    }));
+    CompletableFuture<YamlConfig> failed = map.getOrCreateAsync("config");
+    ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+        () -> failed.get(10, TimeUnit.SECONDS));
+    Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+    Assertions.assertFalse(map.contains("config"));
+    // the failed load is not cached, thus the next caller loads again
+    Assertions.assertNotNull(map.getOrCreateAsync("config").get(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(2, created.get());
+    Assertions.assertTrue(map.contains("config"));
+  }
+
+  @Test
+  public void recursiveLoad() {
+    AtomicInteger created = new AtomicInteger();
+    AtomicReference<ConfigMap<YamlConfig>> handler = new AtomicReference<>();
+    ConfigMap<YamlConfig> map = new ConfigMap<>((id) -> {
+      created.incrementAndGet();
+      // loading the config requires the config itself, which would never complete
+      return new HookedConfig(id, (config) -> handler.get().getOrCreate(id));
+    });
+    handler.set(map);
+    Assertions.assertThrows(IllegalStateException.class, () -> map.getOrCreate("config"));
+    Assertions.assertEquals(1, created.get());
+    Assertions.assertFalse(map.contains("config"));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Config invoking a hook whenever it is loaded. */
+  private static final class HookedConfig extends YamlConfig {
+    private final Consumer<HookedConfig> onLoad;
+
+    HookedConfig(String id, Consumer<HookedConfig> onLoad) {
+      super(id, new File("missing", id + ".yml"));
+      this.onLoad = onLoad;
+    }
+
+    @Override
+    public synchronized void load() {
+      onLoad.accept(this);
+      super.load();
+    }
+  }
+
+}
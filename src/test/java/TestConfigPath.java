@@ -2,6 +2,8 @@ import io.github.aparx.bufig.ConfigPath;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 
+import java.util.Arrays;
+
 /**
  * @author aparx (Vinzent Z.)
  * @version 2023-11-23 22:23
@@ -42,6 +44,22 @@ public class TestConfigPath {
         ConfigPath.parse("b.c", ',').toArray());
     Assertions.assertArrayEquals(new String[]{"b.c", "d.e"},
         ConfigPath.parse("b.c,d.e", ',').toArray());
+    Assertions.assertArrayEquals(new String[]{"a", " b"},
+        ConfigPath.parse("a. b. .", '.').toArray());
+    Assertions.assertArrayEquals(new String[0],
+        ConfigPath.parse(" . ..", '.').toArray());
+  }
+
+  @Test
+  public void parseSequence() {
+    Assertions.assertArrayEquals(new String[]{"a", "b", "c"},
+        ConfigPath.parse(new StringBuilder("..a..b.c."), '.').toArray());
+    Assertions.assertArrayEquals(new String[]{"a"},
+        ConfigPath.parse(new StringBuilder("a"), '.').toArray());
+    Assertions.assertArrayEquals(new String[0],
+        ConfigPath.parse(new StringBuilder(), '.').toArray());
+    Assertions.assertEquals(ConfigPath.parse("a.b", '.'),
+        ConfigPath.parse(new StringBuilder("a.b"), '.'));
   }
 
   @Test
@@ -106,6 +124,27 @@ public class TestConfigPath {
         path.subpath(3, 5).toArray());
     Assertions.assertArrayEquals(path.toArray(),
         path.subpath(0, path.length()).toArray());
+    Assertions.assertArrayEquals(new String[]{"b", "c", "x"},
+        path.subpath(1, 3).add("x").toArray());
+    Assertions.assertArrayEquals(new String[]{"e", "f", "x"},
+        path.subpath(4).add("x").toArray());
+    Assertions.assertArrayEquals(new String[]{"c", "x", "y"},
+        path.subpath(1, 3).add("x").subpath(1).add(ConfigPath.of("y")).toArray());
+  }
+
+  @Test
+  public void equality() {
+    ConfigPath path = ConfigPath.of("a").add("b").add(ConfigPath.of("c", "d"));
+    Assertions.assertEquals(ConfigPath.of("a", "b", "c", "d"), path);
+    Assertions.assertEquals(ConfigPath.of("a", "b", "c", "d").hashCode(), path.hashCode());
+    Assertions.assertEquals(Arrays.hashCode(path.toArray()), path.hashCode());
+    Assertions.assertEquals(ConfigPath.of("b", "c"), path.subpath(1, 3));
+    Assertions.assertEquals(ConfigPath.of("b", "c").hashCode(), path.subpath(1, 3).hashCode());
+    Assertions.assertNotEquals(ConfigPath.of("b", "d"), path.subpath(1, 3));
+    Assertions.assertEquals(ConfigPath.of().hashCode(), Arrays.hashCode(new String[0]));
+    Assertions.assertEquals("b.c.d", path.subpath(1).join('.'));
+    Assertions.assertEquals("d", path.last());
+    Assertions.assertEquals("a", path.first());
   }
 
 
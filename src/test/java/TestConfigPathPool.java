@@ -0,0 +1,35 @@
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.ConfigPathPool;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-11-27 10:40
+ * @since 1.0
+ */
+public class TestConfigPathPool {
+
+  @Test
+  public void intern() {
+    ConfigPathPool pool = new ConfigPathPool('.', 16);
+    ConfigPath path = ConfigPath.of("a", "b");
+    Assertions.assertSame(path, pool.intern(path));
+    Assertions.assertSame(path, pool.intern(ConfigPath.of("a", "b")));
+    Assertions.assertSame(ConfigPath.of(), pool.intern(ConfigPath.of()));
+  }
+
+  @Test
+  public void parse() {
+    ConfigPathPool pool = new ConfigPathPool('.', 16);
+    ConfigPath path = pool.parse("a.b.c");
+    Assertions.assertArrayEquals(new String[]{"a", "b", "c"}, path.toArray());
+    Assertions.assertSame(path, pool.parse("a.b.c"));
+    Assertions.assertSame(path, pool.parse("a..b.c"));
+    Assertions.assertSame(path, pool.intern(ConfigPath.of("a", "b", "c")));
+    Assertions.assertSame(path.join('.'), path.join('.'));
+    Assertions.assertEquals("a,b,c", path.join(','));
+    Assertions.assertEquals("a.b.c", path.join('.'));
+  }
+
+}
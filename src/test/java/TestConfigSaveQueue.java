@@ -0,0 +1,100 @@
+import io.github.aparx.bufig.io.ConfigSaveQueue;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 15:10
+ * @since 1.0
+ */
+public class TestConfigSaveQueue {
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-queue");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  @Test
+  public void coalesce() throws Exception {
+    Path target = newDirectory().resolve("config.yml");
+    try (ConfigSaveQueue queue = new ConfigSaveQueue(Duration.ofMillis(200))) {
+      CompletableFuture<Void> first = queue.submit(target, "first".getBytes());
+      CompletableFuture<Void> second = queue.submit(target, "second".getBytes());
+      // submissions within the window share a single write of the latest contents
+      Assertions.assertSame(first, second);
+      Assertions.assertTrue(queue.isPending(target));
+      Assertions.assertFalse(Files.exists(target));
+      first.get(10, TimeUnit.SECONDS);
+      Assertions.assertEquals("second", Files.readString(target));
+      Assertions.assertFalse(queue.isPending(target));
+      // contents submitted after the write are written again
+      CompletableFuture<Void> third = queue.submit(target, "third".getBytes());
+      Assertions.assertNotSame(first, third);
+      third.get(10, TimeUnit.SECONDS);
+      Assertions.assertEquals("third", Files.readString(target));
+    }
+  }
+
+  @Test
+  public void flush() throws Exception {
+    Path directory = newDirectory();
+    Path a = directory.resolve("a.yml");
+    Path b = directory.resolve("b.yml");
+    try (ConfigSaveQueue queue = new ConfigSaveQueue(Duration.ofHours(1))) {
+      CompletableFuture<Void> first = queue.submit(a, "a".getBytes());
+      queue.submit(b, "b".getBytes());
+      Assertions.assertTrue(queue.isPending(a));
+      // the window is cancelled, thus the writes are executed without waiting for it
+      queue.flush().get(10, TimeUnit.SECONDS);
+      Assertions.assertTrue(first.isDone());
+      Assertions.assertEquals("a", Files.readString(a));
+      Assertions.assertEquals("b", Files.readString(b));
+      Assertions.assertFalse(queue.isPending(a));
+      Assertions.assertFalse(queue.isPending(b));
+      queue.submit(a, "again".getBytes());
+      Assertions.assertTrue(queue.isPending(a));
+      queue.flush().get(10, TimeUnit.SECONDS);
+      Assertions.assertEquals("again", Files.readString(a));
+    }
+  }
+
+  @Test
+  public void pendingUntilWritten() throws Exception {
+    Path target = newDirectory().resolve("config.yml");
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    CountDownLatch blocked = new CountDownLatch(1);
+    try {
+      ConfigSaveQueue queue = new ConfigSaveQueue(executor, Duration.ofHours(1));
+      queue.submit(target, "contents".getBytes());
+      // the executor is occupied, thus the flushed write is neither pending nor written
+      executor.execute(() -> {
+        try {
+          blocked.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      CompletableFuture<Void> flush = queue.flush();
+      Assertions.assertFalse(flush.isDone());
+      Assertions.assertTrue(queue.isPending(target));
+      blocked.countDown();
+      flush.get(10, TimeUnit.SECONDS);
+      Assertions.assertFalse(queue.isPending(target));
+      Assertions.assertEquals("contents", Files.readString(target));
+      // closing a queue does not shut an executor down, which it does not own
+      queue.close();
+      Assertions.assertFalse(executor.isShutdown());
+    } finally {
+      blocked.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+}
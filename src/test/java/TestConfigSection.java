@@ -0,0 +1,91 @@
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.ConfigSection;
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 16:05
+ * @since 1.0
+ */
+public class TestConfigSection {
+
+  private static YamlConfig newConfig() {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.set("a.b.value", 1);
+    config.set("a.other", 2);
+    return config;
+  }
+
+  @Test
+  public void cacheHandles() {
+    YamlConfig config = newConfig();
+    ConfigSection section = config.getSection("a.b");
+    Assertions.assertSame(section, config.getSection("a.b"));
+    Assertions.assertSame(section, config.getSection(ConfigPath.of("a", "b")));
+    Assertions.assertSame(config, config.getSection(ConfigPath.of()));
+    // nested handles are created with their actual parent and full path
+    Assertions.assertEquals(ConfigPath.of("a", "b"), section.getPath());
+    Assertions.assertSame(config.getSection("a"), section.getParent());
+    Assertions.assertSame(section, config.getSection("a").getSection("b"));
+    Assertions.assertEquals(1, section.getInt("value"));
+    // setting values does not replace any section, thus handles are kept
+    int generation = config.getGeneration();
+    config.set("a.b.value", 3);
+    Assertions.assertEquals(generation, config.getGeneration());
+    Assertions.assertSame(section, config.getSection("a.b"));
+    Assertions.assertEquals(3, section.getInt("value"));
+    Assertions.assertThrows(IllegalStateException.class, () -> config.getSection("a.other"));
+    Assertions.assertThrows(IllegalStateException.class, () -> config.getSection("missing"));
+  }
+
+  @Test
+  public void replaceSection() {
+    YamlConfig config = newConfig();
+    ConfigSection section = config.getSection("a.b");
+    int generation = config.getGeneration();
+    config.set("a", null);
+    Assertions.assertNotEquals(generation, config.getGeneration());
+    // the section no longer exists, thus neither does its handle
+    Assertions.assertThrows(IllegalStateException.class, section::getSection);
+    Assertions.assertThrows(IllegalStateException.class, () -> config.getSection("a.b"));
+    Assertions.assertNull(section.get("value"));
+    // handles rebind to sections created at their path again
+    config.set("a.b.value", 4);
+    Assertions.assertEquals(4, section.getInt("value"));
+    Assertions.assertSame(config.getOutput().getConfigurationSection("a.b"),
+        section.getSection());
+    ConfigSection replaced = config.getSection("a.b");
+    Assertions.assertEquals(4, replaced.getInt("value"));
+    config.set("a.b", 5);
+    Assertions.assertThrows(IllegalStateException.class, () -> config.getSection("a.b"));
+    Assertions.assertEquals(5, config.getInt("a.b"));
+  }
+
+  @Test
+  public void keepHandlesOnLoad() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-section");
+    directory.toFile().deleteOnExit();
+    Path file = directory.resolve("test.yml");
+    Files.writeString(file, "a:\n  b:\n    value: 1\n");
+    YamlConfig config = new YamlConfig("test", file.toFile());
+    config.load();
+    ConfigSection section = config.getSection("a.b");
+    Assertions.assertEquals(1, section.getInt("value"));
+    Files.writeString(file, "a:\n  b:\n    value: 2\n    name: text\n");
+    config.load();
+    // the output has been replaced, thus the handle is bound to the loaded section
+    Assertions.assertSame(section, config.getSection("a.b"));
+    Assertions.assertEquals(2, section.getInt("value"));
+    Assertions.assertEquals("text", section.getString("name"));
+    section.set("value", 3);
+    Assertions.assertEquals(3, config.getInt("a.b.value"));
+  }
+
+}
@@ -0,0 +1,82 @@
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.io.ConfigSnapshot;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 11:05
+ * @since 1.0
+ */
+public class TestConfigSnapshot {
+
+  private static ConfigSnapshot newSnapshot() {
+    Map<String, Object> section = new LinkedHashMap<>();
+    section.put("name", "value");
+    section.put("empty", new LinkedHashMap<>());
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("string", "text");
+    values.put("int", 42);
+    values.put("long", Long.MAX_VALUE);
+    values.put("double", 1.5);
+    values.put("float", 2.5f);
+    values.put("boolean", true);
+    values.put("list", List.of("a", 1, List.of(), Map.of("key", "text")));
+    values.put("section", section);
+    Map<ConfigPath, String[]> docs = new LinkedHashMap<>();
+    docs.put(ConfigPath.of("string"), new String[]{"first", "text"});
+    docs.put(ConfigPath.of("section", "name"), new String[]{""});
+    return new ConfigSnapshot("header\n\nline", docs, values);
+  }
+
+  private static void assertSnapshotEquals(ConfigSnapshot expected, ConfigSnapshot actual) {
+    Assertions.assertEquals(expected.getHeader(), actual.getHeader());
+    Assertions.assertEquals(expected.getValues(), actual.getValues());
+    Assertions.assertEquals(expected.getDocs().keySet(), actual.getDocs().keySet());
+    expected.getDocs().forEach((path, docs) ->
+        Assertions.assertArrayEquals(docs, actual.getDocs().get(path)));
+  }
+
+  @Test
+  public void encodeDecode() throws IOException {
+    ConfigSnapshot snapshot = newSnapshot();
+    byte[] bytes = snapshot.toByteArray();
+    assertSnapshotEquals(snapshot, ConfigSnapshot.fromByteArray(bytes));
+    assertSnapshotEquals(snapshot, ConfigSnapshot.fromBuffer(ByteBuffer.wrap(bytes)));
+    // buffers are decoded from their position, as with a region of a mapped file
+    ByteBuffer buffer = ByteBuffer.allocateDirect(3 + bytes.length);
+    buffer.put(new byte[3]).put(bytes).position(3);
+    assertSnapshotEquals(snapshot, ConfigSnapshot.fromBuffer(buffer));
+    Assertions.assertEquals(3, buffer.position());
+  }
+
+  @Test
+  public void encodeDecodeEmpty() throws IOException {
+    ConfigSnapshot snapshot = new ConfigSnapshot(null, Map.of(), Map.of());
+    ConfigSnapshot decoded = ConfigSnapshot.fromByteArray(snapshot.toByteArray());
+    assertSnapshotEquals(snapshot, decoded);
+    Assertions.assertNull(decoded.getHeader());
+  }
+
+  @Test
+  public void unsupported() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ConfigSnapshot(null, Map.of(), Map.of("key", new Object())));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ConfigSnapshot(null, Map.of(), Map.of("key", List.of(Map.of(1, "a")))));
+  }
+
+  @Test
+  public void malformed() {
+    byte[] bytes = newSnapshot().toByteArray();
+    Assertions.assertThrows(IOException.class,
+        () -> ConfigSnapshot.fromByteArray(Arrays.copyOf(bytes, bytes.length / 2)));
+    bytes[0] ^= 1;
+    Assertions.assertThrows(IOException.class, () -> ConfigSnapshot.fromByteArray(bytes));
+  }
+
+}
@@ -0,0 +1,172 @@
+import io.github.aparx.bufig.Config;
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.handler.ConfigMap;
+import io.github.aparx.bufig.handler.ConfigWatcher;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 10:30
+ * @since 1.0
+ */
+public class TestConfigWatcher {
+
+  private static final Duration DEBOUNCE = Duration.ofMillis(300);
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-watch");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  private static String poll(BlockingQueue<String> events) throws InterruptedException {
+    return events.poll(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void debounce() throws Exception {
+    Path directory = newDirectory();
+    Files.writeString(directory.resolve("a.yml"), "value: 0\n");
+    ExecutorService apply = Executors.newSingleThreadExecutor();
+    ConfigMap<LoadCountingConfig> map = new ConfigMap<>(
+        (id) -> new LoadCountingConfig(id, directory.resolve(id + ".yml").toFile()));
+    LoadCountingConfig config = map.getOrCreate("a");
+    BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    try (ConfigWatcher watcher = map.watch(DEBOUNCE, apply)) {
+      watcher.addListener(new RecordingListener(events));
+      // a burst of writes is checked and reloaded once
+      for (int i = 1; i <= 10; ++i)
+        Files.writeString(directory.resolve("a.yml"), "value: " + i * 100 + "\n");
+      Assertions.assertEquals("reload a", poll(events));
+      Assertions.assertNull(events.poll(DEBOUNCE.toMillis() * 3, TimeUnit.MILLISECONDS));
+      Assertions.assertEquals(1000, config.getInt("value"));
+      Assertions.assertFalse(config.isDirty());
+      // the file is parsed in the background, rather than loaded on the apply executor
+      Assertions.assertEquals(1, config.loads.get());
+      // saves of the config itself are not reloaded
+      apply.submit(() -> {
+        config.set("value", 5);
+        config.save();
+      }).get(10, TimeUnit.SECONDS);
+      Assertions.assertNull(events.poll(DEBOUNCE.toMillis() * 3, TimeUnit.MILLISECONDS));
+      Assertions.assertEquals(5, config.getInt("value"));
+    } finally {
+      apply.shutdownNow();
+    }
+  }
+
+  @Test
+  public void conflict() throws Exception {
+    Path directory = newDirectory();
+    Files.writeString(directory.resolve("a.yml"), "value: 0\n");
+    ExecutorService apply = Executors.newSingleThreadExecutor();
+    ConfigMap<YamlConfig> map = new ConfigMap<>(
+        (id) -> new YamlConfig(id, directory.resolve(id + ".yml").toFile()));
+    YamlConfig config = map.getOrCreate("a");
+    BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    try (ConfigWatcher watcher = map.watch(DEBOUNCE, apply)) {
+      watcher.addListener(new RecordingListener(events));
+      apply.submit(() -> config.set("value", 1)).get(10, TimeUnit.SECONDS);
+      Files.writeString(directory.resolve("a.yml"), "value: 20\n");
+      Assertions.assertEquals("conflict a", poll(events));
+      // neither change is discarded until the conflict is resolved
+      Assertions.assertEquals(1, config.getInt("value"));
+      Assertions.assertTrue(config.isDirty());
+      Assertions.assertTrue(config.isFileConflicting());
+      Assertions.assertEquals("value: 20\n", Files.readString(directory.resolve("a.yml")));
+    } finally {
+      apply.shutdownNow();
+    }
+  }
+
+  @Test
+  public void overflow() throws Exception {
+    Path directory = newDirectory();
+    Files.writeString(directory.resolve("a.yml"), "value: 0\n");
+    ConfigMap<YamlConfig> map = new ConfigMap<>(
+        (id) -> new YamlConfig(id, directory.resolve(id + ".yml").toFile()));
+    YamlConfig config = map.getOrCreate("a");
+    BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    // watchers of other tests may still be running, thus only the new thread is blocked
+    Set<Thread> previous = findThreads("bufig-watch");
+    try (ConfigWatcher watcher = map.watch(DEBOUNCE, Runnable::run)) {
+      watcher.addListener(new RecordingListener(events));
+      Set<Thread> threads = findThreads("bufig-watch");
+      threads.removeAll(previous);
+      Assertions.assertEquals(1, threads.size());
+      Thread thread = threads.iterator().next();
+      synchronized (watcher) {
+        // the watcher blocks refreshing the added config, while events queue up
+        map.getOrCreate("b");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.BLOCKED && System.nanoTime() < deadline)
+          Thread.sleep(10);
+        Assertions.assertEquals(Thread.State.BLOCKED, thread.getState());
+        for (int i = 0; i < 600; ++i)
+          Files.createFile(directory.resolve("other-" + i + ".txt"));
+        // exceeds the events a key holds, thus the change is only reported as an overflow
+        Files.writeString(directory.resolve("a.yml"), "value: 30\n");
+      }
+      Assertions.assertEquals("reload a", poll(events));
+      Assertions.assertEquals(30, config.getInt("value"));
+    }
+  }
+
+  private static Set<Thread> findThreads(String name) {
+    Set<Thread> threads = new HashSet<>();
+    for (Thread thread : Thread.getAllStackTraces().keySet())
+      if (name.equals(thread.getName())) threads.add(thread);
+    return threads;
+  }
+
+  /** Listener recording the notifications it receives. */
+  private static final class RecordingListener implements ConfigWatcher.Listener {
+    private final BlockingQueue<String> events;
+
+    RecordingListener(BlockingQueue<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public void onReload(Config config) {
+      events.add("reload " + config.getId());
+    }
+
+    @Override
+    public void onFailure(Config config, Throwable throwable) {
+      events.add("failure " + config.getId() + ": " + throwable);
+    }
+
+    @Override
+    public void onConflict(Config config) {
+      events.add("conflict " + config.getId());
+    }
+  }
+
+  /** Config counting the calls of {@code load}. */
+  private static final class LoadCountingConfig extends YamlConfig {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    LoadCountingConfig(String id, File file) {
+      super(id, file);
+    }
+
+    @Override
+    public synchronized void load() {
+      loads.incrementAndGet();
+      super.load();
+    }
+  }
+
+}
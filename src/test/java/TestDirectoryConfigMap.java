@@ -0,0 +1,98 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.handler.ConfigBatchResult;
+import io.github.aparx.bufig.handler.ConfigDirectory;
+import io.github.aparx.bufig.handler.DirectoryConfigMap;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 17:25
+ * @since 1.0
+ */
+public class TestDirectoryConfigMap {
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-directory");
+    directory.toFile().deleteOnExit();
+    Files.createDirectories(directory.resolve("arenas").resolve("old"));
+    // directories matching the glob are never mistaken for config files
+    Files.createDirectories(directory.resolve("folder.yml"));
+    Files.writeString(directory.resolve("main.yml"), "value: 1\n");
+    Files.writeString(directory.resolve("notes.txt"), "ignored");
+    Files.writeString(directory.resolve("arenas").resolve("desert.yml"), "value: 2\n");
+    Files.writeString(directory.resolve("arenas").resolve("forest.yml"), "value: 3\n");
+    Files.writeString(directory.resolve("arenas").resolve("old").resolve("cave.yml"),
+        "value: 4\n");
+    return directory;
+  }
+
+  private static Set<String> scan(ConfigDirectory directory) throws IOException {
+    Set<String> found = new HashSet<>();
+    directory.scan(found::add);
+    return found;
+  }
+
+  @Test
+  public void scanDirectory() throws IOException {
+    Path root = newDirectory();
+    Assertions.assertEquals(Set.of("main"), scan(ConfigDirectory.of(root, ".yml", false)));
+    Assertions.assertEquals(Set.of("main", "arenas/desert", "arenas/forest", "arenas/old/cave"),
+        scan(ConfigDirectory.of(root, ".yml", true)));
+    // the glob is matched against the path relative to the root
+    Assertions.assertEquals(Set.of("arenas/desert", "arenas/forest"),
+        scan(new ConfigDirectory(root, ".yml", "arenas/*.yml", true)));
+    Assertions.assertEquals(Set.of("arenas/desert"),
+        scan(new ConfigDirectory(root, ".yml", "**/d*.yml", true)));
+    Assertions.assertEquals(Set.of(),
+        scan(ConfigDirectory.of(root.resolve("missing"), ".yml", true)));
+  }
+
+  @Test
+  public void identify() {
+    ConfigDirectory directory = ConfigDirectory.of(Path.of("data"), ".yml", true);
+    Path file = directory.resolve("arenas/desert");
+    Assertions.assertEquals(Path.of("data", "arenas", "desert.yml"), file);
+    Assertions.assertEquals("arenas/desert", directory.identify(file));
+    // only the extension at the end is removed
+    Assertions.assertEquals("a.yml.txt", directory.identify(Path.of("data", "a.yml.txt")));
+    Assertions.assertEquals(".yml", directory.identify(Path.of("data", ".yml")));
+  }
+
+  @Test
+  public void prewarm() throws Exception {
+    Path root = newDirectory();
+    Files.writeString(root.resolve("arenas").resolve("broken.yml"), "value: [unclosed\n");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      DirectoryConfigMap<YamlConfig> map = new DirectoryConfigMap<>(
+          ConfigDirectory.of(root, ".yml", true), YamlConfig::new, executor);
+      Assertions.assertTrue(map.getRegisteredIds().isEmpty());
+      ConfigBatchResult result = map.prewarm().get(10, TimeUnit.SECONDS);
+      Assertions.assertEquals(Set.of("arenas/broken"), result.getFailures().keySet());
+      Assertions.assertEquals(
+          Set.of("main", "arenas/desert", "arenas/forest", "arenas/old/cave"),
+          result.getSucceeded());
+      Assertions.assertEquals(5, map.getRegisteredIds().size());
+      Assertions.assertEquals(4, map.asMap().size());
+      Assertions.assertEquals(2, map.get("arenas/desert").getInt("value"));
+      Assertions.assertEquals(4, map.get("arenas/old/cave").getInt("value"));
+      // configs are still created lazily at the file the directory resolves
+      YamlConfig created = map.getOrCreate("arenas/new");
+      Assertions.assertEquals(root.resolve("arenas").resolve("new.yml").toFile(),
+          created.getFile());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
@@ -0,0 +1,136 @@
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.DocCursor;
+import io.github.aparx.bufig.DocTemplate;
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the cursor looking up documentation while walking the paths of a config, being
+ * its nodes computed lazily and kept up-to-date with the documentation and template.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 17:50
+ * @since 1.0
+ */
+public class TestDocCursor {
+
+  private static final DocTemplate TEMPLATE = DocTemplate.of(Map.of(
+      ConfigPath.of("a"), List.of("template a"),
+      ConfigPath.of("a", "b"), List.of("template b")));
+
+  private static YamlConfig newConfig() {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.setDocs("a", "a");
+    config.setDocs("a.b", "b");
+    config.setDocs("a.b.c", "c");
+    config.setDocs("d", "d");
+    return config;
+  }
+
+  @Test
+  public void walk() {
+    YamlConfig config = newConfig();
+    DocCursor cursor = config.newDocCursor();
+    Assertions.assertNull(cursor.getDocs());
+    cursor.moveTo(0, "a");
+    Assertions.assertEquals(List.of("a"), cursor.getDocs());
+    cursor.moveTo(1, "b");
+    cursor.moveTo(2, "c");
+    Assertions.assertEquals(List.of("c"), cursor.getDocs());
+    Assertions.assertEquals(ConfigPath.of("a", "b", "c"), cursor.toPath());
+    // moving to a lower depth cuts off deeper segments
+    cursor.moveTo(0, "d");
+    Assertions.assertEquals(List.of("d"), cursor.getDocs());
+    Assertions.assertEquals(ConfigPath.of("d"), cursor.toPath());
+    cursor.moveTo(1, "missing");
+    Assertions.assertNull(cursor.getDocs());
+    // invalid segments are skipped, thus the path of the cursor is "a.b"
+    cursor.moveTo(0, "a");
+    cursor.moveTo(1, "");
+    cursor.moveTo(2, "b");
+    Assertions.assertEquals(List.of("b"), cursor.getDocs());
+    Assertions.assertEquals(ConfigPath.of("a", "b"), cursor.toPath());
+    cursor.reset();
+    Assertions.assertNull(cursor.getDocs());
+    // the buffers grow beyond their initial capacity
+    for (int i = 0; i < 20; ++i)
+      cursor.moveTo(i, "s" + i);
+    Assertions.assertFalse(cursor.hasDocs());
+    cursor.setDocsIfAbsent(List.of("deep"));
+    Assertions.assertArrayEquals(new String[]{"deep"},
+        config.getDocs(cursor.toPath().join('.')));
+  }
+
+  @Test
+  public void mutateWhileWalking() {
+    YamlConfig config = newConfig();
+    DocCursor cursor = config.newDocCursor();
+    cursor.moveTo(0, "a");
+    cursor.moveTo(1, "b");
+    cursor.moveTo(2, "c");
+    Assertions.assertEquals(List.of("c"), cursor.getDocs());
+    // the nodes of every depth are computed again once the documentation changed
+    config.setDocs("a.b.c", "changed");
+    Assertions.assertEquals(List.of("changed"), cursor.getDocs());
+    config.removeDocs(ConfigPath.of("a"));
+    Assertions.assertNull(cursor.getDocs());
+    cursor.moveTo(1, "b");
+    Assertions.assertFalse(cursor.hasDocs());
+    Assertions.assertTrue(cursor.setDocsIfAbsent(List.of("b again")));
+    Assertions.assertFalse(cursor.setDocsIfAbsent(List.of("ignored")));
+    Assertions.assertEquals(List.of("b again"), cursor.getDocs());
+    Assertions.assertArrayEquals(new String[]{"b again"}, config.getDocs("a.b"));
+    cursor.moveTo(2, "c");
+    Assertions.assertNull(cursor.getDocs());
+    config.setDocs("a.b.c", "c again");
+    Assertions.assertEquals(List.of("c again"), cursor.getDocs());
+  }
+
+  @Test
+  public void swapTemplateWhileWalking() {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.setDocs("a.c", "c");
+    DocCursor cursor = config.newDocCursor();
+    cursor.moveTo(0, "a");
+    cursor.moveTo(1, "b");
+    Assertions.assertNull(cursor.getDocs());
+    // installing the template masks paths it documents, keeping the visible documentation
+    config.setDocTemplate(TEMPLATE);
+    Assertions.assertNull(cursor.getDocs());
+    // documentation equal to the template is dropped, thus looked up from the template
+    config.setDocs("a.b", "template b");
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("a", "b")), cursor.getDocs());
+    cursor.moveTo(0, "a");
+    config.setDocs("a", "template a");
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("a")), cursor.getDocs());
+    cursor.moveTo(1, "b");
+    // documentation equal to the new template is looked up from the new template
+    DocTemplate copy = DocTemplate.of(Map.of(
+        ConfigPath.of("a"), List.of("template a"),
+        ConfigPath.of("a", "b"), List.of("template b")));
+    Assertions.assertNotSame(TEMPLATE.getDocs(ConfigPath.of("a", "b")),
+        copy.getDocs(ConfigPath.of("a", "b")));
+    config.setDocTemplate(copy);
+    Assertions.assertSame(copy.getDocs(ConfigPath.of("a", "b")), cursor.getDocs());
+    // the lookup follows the template of the config, even if swapped mid-walk
+    DocTemplate other = DocTemplate.of(Map.of(ConfigPath.of("a", "b"), List.of("other b")));
+    config.setDocTemplate(other);
+    Assertions.assertEquals(List.of("template b"), cursor.getDocs());
+    config.setDocs("a.b", "other b");
+    Assertions.assertSame(other.getDocs(ConfigPath.of("a", "b")), cursor.getDocs());
+    cursor.moveTo(1, "c");
+    Assertions.assertEquals(List.of("c"), cursor.getDocs());
+    // an empty override masks the template
+    cursor.moveTo(1, "b");
+    config.setDocs("a.b");
+    Assertions.assertNull(cursor.getDocs());
+    config.setDocTemplate(null);
+    Assertions.assertNull(cursor.getDocs());
+  }
+
+}
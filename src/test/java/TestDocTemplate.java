@@ -0,0 +1,183 @@
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.DocTemplate;
+import io.github.aparx.bufig.configurable.field.ConfigMapping;
+import io.github.aparx.bufig.configurable.field.Document;
+import io.github.aparx.bufig.configurable.object.ConfigObject;
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.handler.ConfigHandler;
+import io.github.aparx.bufig.handler.ConfigMap;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests documentation shared through a template, being the masking of the template by the
+ * documentation of a config and the templates of {@code ConfigObject} classes.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 14:30
+ * @since 1.0
+ */
+public class TestDocTemplate {
+
+  private static final DocTemplate TEMPLATE = DocTemplate.of(Map.of(
+      ConfigPath.of("a"), List.of("a"),
+      ConfigPath.of("s"), List.of("section"),
+      ConfigPath.of("s", "x"), List.of("x"),
+      ConfigPath.of("s", "y"), List.of("y", "second line")));
+
+  private static YamlConfig newConfig(DocTemplate template) {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.set("a", 1, "a");
+    config.set("s.x", 2, "x");
+    config.set("s.y", 3, "y", "second line");
+    config.setDocs("s", "section");
+    // the visible documentation is kept, thus documentation equal to the template is dropped
+    config.setDocTemplate(template);
+    return config;
+  }
+
+  @Test
+  public void lookupTemplate() {
+    YamlConfig config = newConfig(TEMPLATE);
+    // documentation of the template is looked up rather than copied
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("a")),
+        config.getDocsView(ConfigPath.of("a")));
+    Assertions.assertArrayEquals(new String[]{"y", "second line"}, config.getDocs("s.y"));
+    Assertions.assertFalse(config.hasDocs("missing"));
+  }
+
+  @Test
+  public void dropEqualDocs() {
+    YamlConfig config = newConfig(TEMPLATE);
+    config.setDocs("a", "override");
+    Assertions.assertArrayEquals(new String[]{"override"}, config.getDocs("a"));
+    // setting documentation equal to the template drops the override
+    config.setDocs("a", "a");
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("a")),
+        config.getDocsView(ConfigPath.of("a")));
+    YamlConfig saved = newConfig(TEMPLATE);
+    saved.loadFromString(config.saveToString());
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("s", "y")),
+        saved.getDocsView(ConfigPath.of("s", "y")));
+  }
+
+  @Test
+  public void maskUndocumented() {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.set("a", 1);
+    config.set("s.x", 2, "own");
+    config.setDocTemplate(TEMPLATE);
+    // paths the template documents, but the config does not, remain undocumented
+    Assertions.assertFalse(config.hasDocs("a"));
+    Assertions.assertFalse(config.hasDocs("s"));
+    Assertions.assertArrayEquals(new String[]{"own"}, config.getDocs("s.x"));
+    config.setDocs("a", "a");
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("a")),
+        config.getDocsView(ConfigPath.of("a")));
+  }
+
+  @Test
+  public void emptyOverrideMasksTemplate() {
+    YamlConfig config = newConfig(TEMPLATE);
+    config.setDocs("a");
+    Assertions.assertFalse(config.hasDocs("a"));
+    Assertions.assertNull(config.getDocs("a"));
+    Assertions.assertFalse(config.saveToString().contains("# a"));
+    // the mask is kept when the template is removed, leaving the documentation unchanged
+    config.setDocTemplate(null);
+    Assertions.assertFalse(config.hasDocs("a"));
+    Assertions.assertArrayEquals(new String[]{"x"}, config.getDocs("s.x"));
+    config.setDocs("a", "again");
+    Assertions.assertArrayEquals(new String[]{"again"}, config.getDocs("a"));
+  }
+
+  @Test
+  public void replaceSectionMasksTemplate() {
+    YamlConfig config = newConfig(TEMPLATE);
+    config.set("s", Map.of("x", 4), "section");
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("s")),
+        config.getDocsView(ConfigPath.of("s")));
+    Assertions.assertTrue(config.hasDocs("s.x"));
+    Assertions.assertFalse(config.hasDocs("s.y"));
+    config.set("s", 6, "section");
+    Assertions.assertTrue(config.hasDocs("s"));
+    Assertions.assertFalse(config.hasDocs("s.x"));
+    Assertions.assertEquals(2, newConfig(TEMPLATE).removeDocs(ConfigPath.of("s", "x"))
+        + newConfig(TEMPLATE).removeDocs(ConfigPath.of("s", "y")));
+    YamlConfig removed = newConfig(TEMPLATE);
+    Assertions.assertEquals(3, removed.removeDocs(ConfigPath.of("s")));
+    Assertions.assertFalse(removed.hasDocs("s"));
+    Assertions.assertFalse(removed.hasDocs("s.y"));
+    Assertions.assertTrue(removed.hasDocs("a"));
+  }
+
+  @Test
+  public void saveWithAndWithoutTemplate() {
+    YamlConfig templated = newConfig(TEMPLATE);
+    YamlConfig plain = newConfig(null);
+    String contents = templated.saveToString();
+    Assertions.assertEquals(plain.saveToString(), contents);
+    Assertions.assertTrue(contents.contains("# second line"));
+    // the saved file is loaded the same way, with or without the template
+    YamlConfig loaded = new YamlConfig("test", new File("test.yml"));
+    loaded.loadFromString(contents);
+    Assertions.assertArrayEquals(new String[]{"y", "second line"}, loaded.getDocs("s.y"));
+    Assertions.assertEquals(contents, loaded.saveToString());
+    loaded.setDocTemplate(TEMPLATE);
+    Assertions.assertSame(TEMPLATE.getDocs(ConfigPath.of("s", "y")),
+        loaded.getDocsView(ConfigPath.of("s", "y")));
+    Assertions.assertEquals(contents, loaded.saveToString());
+  }
+
+  @Test
+  public void configObjectsShareTemplate() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-template");
+    directory.toFile().deleteOnExit();
+    DocTemplate template = ConfigObject.getDocTemplate(Settings.class, '.');
+    Assertions.assertSame(template, ConfigObject.getDocTemplate(Settings.class, '.'));
+    Assertions.assertEquals(2, template.size());
+    // loaded once to create the files, then again from the files
+    for (int pass = 0; pass < 2; ++pass) {
+      ConfigMap<YamlConfig> handler = new ConfigMap<>(
+          (id) -> new YamlConfig(id, directory.resolve(id + ".yml").toFile()));
+      for (int i = 0; i < 50; ++i) {
+        Settings settings = new Settings("settings-" + i, handler);
+        settings.load();
+        YamlConfig config = handler.getOrCreate("settings-" + i);
+        Assertions.assertSame(template, config.getDocTemplate());
+        Assertions.assertFalse(config.isDirty());
+        // the config stores no documentation of its own
+        config.forEachDocs(ConfigPath.of(), (path, docs) ->
+            Assertions.assertSame(template.getDocs(path), docs));
+        Assertions.assertArrayEquals(new String[]{"the amount", "of things"},
+            config.getDocs("amount"));
+      }
+    }
+    String contents = Files.readString(directory.resolve("settings-0.yml"));
+    Assertions.assertTrue(contents.contains("# the name"), contents);
+    Assertions.assertTrue(contents.contains("# of things"), contents);
+  }
+
+  /** Config object documenting its fields. */
+  public static final class Settings extends ConfigObject {
+    @ConfigMapping
+    @Document("the name")
+    private String name = "default";
+
+    @ConfigMapping
+    @Document({"the amount", "of things"})
+    private int amount = 3;
+
+    public Settings(String configId, ConfigHandler<?> handler) {
+      super(configId, handler);
+    }
+  }
+
+}
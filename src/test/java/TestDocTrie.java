@@ -0,0 +1,125 @@
+import io.github.aparx.bufig.ConfigPath;
+import io.github.aparx.bufig.DocCursor;
+import io.github.aparx.bufig.DocTemplate;
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the trie storing the documentation of a config through the config itself, being
+ * the removal of whole subtrees and the pruning of paths left without documentation.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 14:05
+ * @since 1.0
+ */
+public class TestDocTrie {
+
+  private static YamlConfig newConfig() {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.setDocs("a", "a");
+    config.setDocs("a.b", "b");
+    config.setDocs("a.b.c", "c");
+    config.setDocs("a.d", "d");
+    config.setDocs("ab", "ab");
+    config.setDocs("x.y", "y");
+    return config;
+  }
+
+  private static Map<ConfigPath, List<String>> collectDocs(YamlConfig config, String path) {
+    Map<ConfigPath, List<String>> docs = new HashMap<>();
+    config.forEachDocs(ConfigPath.parse(path, '.'), docs::put);
+    return docs;
+  }
+
+  @Test
+  public void removeDescendants() {
+    YamlConfig config = newConfig();
+    Assertions.assertEquals(4, config.removeDocs(ConfigPath.of("a")));
+    Assertions.assertFalse(config.hasDocs("a"));
+    Assertions.assertFalse(config.hasDocs("a.b.c"));
+    Assertions.assertEquals(Map.of(
+        ConfigPath.of("ab"), List.of("ab"),
+        ConfigPath.of("x", "y"), List.of("y")), collectDocs(config, ""));
+    Assertions.assertEquals(0, config.removeDocs(ConfigPath.of("a")));
+    Assertions.assertEquals(0, config.removeDocs(ConfigPath.of("missing", "path")));
+  }
+
+  @Test
+  public void removeDescendantsOnSet() {
+    YamlConfig config = newConfig();
+    config.set("a.b.c", 1);
+    config.set("a.d", 2);
+    // replacing a section with a scalar drops the documentation of its subtree
+    config.set("a", 3, "replaced");
+    Assertions.assertEquals(Map.of(ConfigPath.of("a"), List.of("replaced")),
+        collectDocs(config, "a"));
+    // replacing a section with a map keeps the documentation of paths still present
+    config.set("x.y", 4);
+    config.set("x.z", 5);
+    config.setDocs("x.z", "z");
+    config.set("x", Map.of("z", 6));
+    Assertions.assertEquals(Map.of(ConfigPath.of("x", "z"), List.of("z")),
+        collectDocs(config, "x"));
+    // the map is stored as a value rather than as a section, but documented alike
+    config.set("x", 7);
+    Assertions.assertEquals(Map.of(), collectDocs(config, "x"));
+  }
+
+  @Test
+  public void prune() {
+    YamlConfig config = newConfig();
+    config.setDocs("a.b.c");
+    config.setDocs("a.b");
+    Assertions.assertFalse(config.hasDocs("a.b"));
+    Assertions.assertFalse(config.hasDocs("a.b.c"));
+    Assertions.assertEquals(Map.of(
+        ConfigPath.of("a"), List.of("a"),
+        ConfigPath.of("a", "d"), List.of("d")), collectDocs(config, "a"));
+    config.setDocs("a.b.c", "again");
+    Assertions.assertArrayEquals(new String[]{"again"}, config.getDocs("a.b.c"));
+    Assertions.assertFalse(config.hasDocs("a.b"));
+  }
+
+  @Test
+  public void pruneInvalidatesCursor() {
+    YamlConfig config = newConfig();
+    DocCursor cursor = config.newDocCursor();
+    cursor.moveTo(0, "a");
+    cursor.moveTo(1, "b");
+    cursor.moveTo(2, "c");
+    Assertions.assertEquals(List.of("c"), cursor.getDocs());
+    config.removeDocs(ConfigPath.of("a", "b"));
+    Assertions.assertNull(cursor.getDocs());
+    config.setDocs("a.b.c", "again");
+    Assertions.assertEquals(List.of("again"), cursor.getDocs());
+    cursor.moveTo(1, "d");
+    Assertions.assertEquals(List.of("d"), cursor.getDocs());
+  }
+
+  @Test
+  public void removeDescendantsOfTemplate() {
+    YamlConfig config = new YamlConfig("test", new File("test.yml"));
+    config.setDocs("a", "a");
+    config.setDocs("a.b", "b");
+    config.setDocs("c", "c");
+    // the template takes over documentation equal to its own, leaving the docs unchanged
+    config.setDocTemplate(DocTemplate.of(Map.of(
+        ConfigPath.of("a"), List.of("a"),
+        ConfigPath.of("a", "b"), List.of("b"),
+        ConfigPath.of("c"), List.of("c"))));
+    config.setDocs("a.e", "e");
+    Assertions.assertEquals(3, config.removeDocs(ConfigPath.of("a")));
+    Assertions.assertFalse(config.hasDocs("a.b"));
+    Assertions.assertEquals(Map.of(ConfigPath.of("c"), List.of("c")), collectDocs(config, ""));
+    // documentation set again overrides the mask of the template
+    config.setDocs("a.b", "b");
+    Assertions.assertArrayEquals(new String[]{"b"}, config.getDocs("a.b"));
+  }
+
+}
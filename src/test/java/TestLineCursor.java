@@ -0,0 +1,87 @@
+import com.google.common.collect.ImmutableList;
+import io.github.aparx.bufig.processors.results.LineCursor;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 12:40
+ * @since 1.0
+ */
+public class TestLineCursor {
+
+  private static final String[] CONTENTS = {
+      "", "\n", "\n\n", "\r", "\r\n", "a", "a\n", "a\n\n\n", "a\r\r\nb", "a\rb", "a\r",
+      "a\r\n\r\n", "\na", "\r\na\r\nb\r\n", "a\n \n", "a\n\nb\n\n", "a\r\r\r\n\n"
+  };
+
+  private static void assertSplitEquals(String content) {
+    List<String> expected = List.of(content.split("\r?\n"));
+    Assertions.assertEquals(expected, ImmutableList.copyOf(LineCursor.of(content)), content);
+    Assertions.assertEquals(expected,
+        ImmutableList.copyOf(LineCursor.of(CharBuffer.wrap(content))), content);
+    Assertions.assertEquals(expected,
+        ImmutableList.copyOf(LineCursor.of(new StringReader(content))), content);
+    Assertions.assertEquals(expected,
+        ImmutableList.copyOf(LineCursor.of(new SingleCharReader(content))), content);
+  }
+
+  @Test
+  public void split() {
+    for (String content : CONTENTS)
+      assertSplitEquals(content);
+  }
+
+  @Test
+  public void splitRandom() {
+    Random random = new Random(17);
+    char[] alphabet = {'a', ' ', '\r', '\n'};
+    for (int i = 0; i < 2000; ++i) {
+      char[] chars = new char[random.nextInt(12)];
+      for (int j = 0; j < chars.length; ++j)
+        chars[j] = alphabet[random.nextInt(alphabet.length)];
+      assertSplitEquals(new String(chars));
+    }
+  }
+
+  @Test
+  public void splitLong() {
+    // lines exceeding the buffer of the reader cursor
+    String line = "a".repeat(20_000);
+    assertSplitEquals(line + "\r\n" + line + "\r" + "\n\n");
+  }
+
+  @Test
+  public void index() {
+    LineCursor cursor = LineCursor.of("a\nb\n\n");
+    Assertions.assertEquals(0, cursor.getIndex());
+    Assertions.assertEquals("a", cursor.next());
+    Assertions.assertEquals(1, cursor.getIndex());
+    Assertions.assertEquals("b", cursor.next());
+    Assertions.assertEquals(2, cursor.getIndex());
+    Assertions.assertFalse(cursor.hasNext());
+    Assertions.assertThrows(NoSuchElementException.class, cursor::next);
+  }
+
+  /** Reader returning at most a single character per read. */
+  private static final class SingleCharReader extends FilterReader {
+    SingleCharReader(String content) {
+      super(new StringReader(content));
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      return super.read(buffer, offset, Math.min(1, length));
+    }
+  }
+
+}
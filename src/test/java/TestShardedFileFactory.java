@@ -0,0 +1,134 @@
+import io.github.aparx.bufig.handler.ConfigBatchResult;
+import io.github.aparx.bufig.handler.ShardedFileFactory;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-03 13:15
+ * @since 1.0
+ */
+public class TestShardedFileFactory {
+
+  private static Path newDirectory() throws IOException {
+    Path directory = Files.createTempDirectory("bufig-sharded");
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  private static List<Path> listLegacyFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  public void layout() throws IOException {
+    Path root = newDirectory();
+    ShardedFileFactory factory = ShardedFileFactory.of(root, ".yml");
+    Path file = factory.resolve("player");
+    Assertions.assertEquals(file, factory.resolve("player"));
+    Assertions.assertEquals("player.yml", file.getFileName().toString());
+    Path relative = root.relativize(file);
+    Assertions.assertEquals(3, relative.getNameCount());
+    for (int i = 0; i < 2; ++i)
+      Assertions.assertTrue(relative.getName(i).toString().matches("[0-9a-f]{2}"));
+    // the subdirectories are taken from the front of the same hash
+    Path narrow = new ShardedFileFactory(root, ".yml", 4, 1, null).resolve("player");
+    Assertions.assertEquals(
+        relative.getName(0).toString() + relative.getName(1),
+        root.relativize(narrow).subpath(0, 4).toString().replace(File.separator, ""));
+    Set<Path> directories = new HashSet<>();
+    for (int i = 0; i < 100; ++i)
+      directories.add(factory.resolve("config-" + i).getParent());
+    Assertions.assertTrue(directories.size() > 90);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new ShardedFileFactory(root, ".yml", 3, 3, null));
+  }
+
+  @Test
+  public void moveOnDemand() throws IOException {
+    Path root = newDirectory();
+    ShardedFileFactory factory = ShardedFileFactory.ofMigrating(root, ".yml");
+    Files.writeString(root.resolve("a.yml"), "legacy: a\n");
+    File file = factory.apply("a");
+    Assertions.assertEquals(factory.resolve("a").toFile(), file);
+    Assertions.assertEquals("legacy: a\n", Files.readString(file.toPath()));
+    Assertions.assertFalse(Files.exists(root.resolve("a.yml")));
+    // an existing sharded file is never replaced by a legacy file
+    Files.writeString(root.resolve("a.yml"), "stale: a\n");
+    Assertions.assertEquals(file, factory.apply("a"));
+    Assertions.assertEquals("legacy: a\n", Files.readString(file.toPath()));
+    // configs without any file are resolved as usual
+    Assertions.assertFalse(factory.apply("b").exists());
+  }
+
+  @Test
+  public void migrate() throws Exception {
+    Path root = newDirectory();
+    ShardedFileFactory factory = ShardedFileFactory.ofMigrating(root, ".yml");
+    for (int i = 0; i < 50; ++i)
+      Files.writeString(root.resolve("config-" + i + ".yml"), "value: " + i + "\n");
+    Files.writeString(root.resolve("other.txt"), "ignored");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ConfigBatchResult result = factory.migrate(executor).get(10, TimeUnit.SECONDS);
+      Assertions.assertTrue(result.isSuccessful());
+      Assertions.assertEquals(50, result.getSucceeded().size());
+      for (int i = 0; i < 50; ++i)
+        Assertions.assertEquals("value: " + i + "\n",
+            Files.readString(factory.resolve("config-" + i)));
+      Assertions.assertEquals(List.of(root.resolve("other.txt")), listLegacyFiles(root));
+    } finally {
+      executor.shutdownNow();
+    }
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> ShardedFileFactory.of(root, ".yml").migrate(Runnable::run));
+  }
+
+  @Test
+  public void migrateConcurrently() throws Exception {
+    Path root = newDirectory();
+    ShardedFileFactory factory = ShardedFileFactory.ofMigrating(root, ".yml");
+    int count = 200;
+    for (int i = 0; i < count; ++i)
+      Files.writeString(root.resolve("config-" + i + ".yml"), "value: " + i + "\n");
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      CompletableFuture<ConfigBatchResult> migration = factory.migrate(executor);
+      // configs resolved during the migration are moved on demand and never missing
+      List<Future<?>> resolves = new ArrayList<>();
+      for (int thread = 0; thread < 4; ++thread)
+        resolves.add(executor.submit(() -> {
+          for (int i = 0; i < count; ++i) {
+            File file = factory.apply("config-" + i);
+            Assertions.assertEquals("value: " + i + "\n", Files.readString(file.toPath()));
+          }
+          return null;
+        }));
+      for (Future<?> resolve : resolves)
+        resolve.get(10, TimeUnit.SECONDS);
+      ConfigBatchResult result = migration.get(10, TimeUnit.SECONDS);
+      Assertions.assertTrue(result.isSuccessful(), result::toString);
+      Assertions.assertTrue(listLegacyFiles(root).isEmpty());
+      for (int i = 0; i < count; ++i)
+        Assertions.assertEquals("value: " + i + "\n",
+            Files.readString(factory.resolve("config-" + i)));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
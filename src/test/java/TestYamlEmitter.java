@@ -0,0 +1,137 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.defaults.yaml.YamlLineScanner;
+import io.github.aparx.bufig.defaults.yaml.YamlProcessors;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compares the contents of configs saved through the single-pass emitter with the ones
+ * saved through the default pipeline of dumping, scanning and processing.
+ *
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 13:10
+ * @since 1.0
+ */
+public class TestYamlEmitter {
+
+  private static void assertSameContents(Consumer<YamlConfig> setup) {
+    File file = new File("test.yml");
+    YamlConfig emitted = new YamlConfig("test", file);
+    // a scanner other than the shared default one disables the emitter
+    YamlConfig dumped = new YamlConfig("test", file,
+        new YamlLineScanner<>(), YamlProcessors.newProcessor());
+    setup.accept(emitted);
+    setup.accept(dumped);
+    Assertions.assertEquals(dumped.saveToString(), emitted.saveToString());
+  }
+
+  @Test
+  public void values() {
+    assertSameContents((config) -> {
+      config.set("string", "plain text");
+      config.set("int", 1);
+      config.set("long", Long.MAX_VALUE);
+      config.set("double", 1.25);
+      config.set("boolean", false);
+      config.set("list", List.of("a", 2, 3.5));
+      config.set("section.child.leaf", "value");
+      config.set("section.other", 5);
+      config.setDocs("string", "documented", "");
+      config.setDocs("section.child", "nested documentation");
+    });
+  }
+
+  @Test
+  public void emptySectionsAndLists() {
+    assertSameContents((config) -> {
+      config.getOutput().createSection("empty");
+      config.getOutput().createSection("section.empty");
+      config.set("list", new ArrayList<>());
+      config.set("section.list", new ArrayList<>());
+      config.setDocs("empty", "empty section");
+    });
+  }
+
+  @Test
+  public void sharedLists() {
+    // the dumper writes a list set at several paths once, referring to it by an alias
+    List<String> list = List.of("a", "b");
+    assertSameContents((config) -> {
+      config.set("first", list);
+      config.set("section.second", list);
+    });
+    assertSameContents((config) -> {
+      config.set("first", List.of());
+      config.set("second", List.of());
+    });
+  }
+
+  @Test
+  public void mapValues() {
+    assertSameContents((config) -> {
+      config.set("map", Map.of());
+      config.set("section.map", Map.of("key", "value"));
+    });
+  }
+
+  @Test
+  public void headerWithoutBody() {
+    assertSameContents((config) -> config.options().header("header\n\nsecond line\n"));
+    assertSameContents((config) -> config.options().header("header"));
+  }
+
+  @Test
+  public void headerWithBody() {
+    assertSameContents((config) -> {
+      config.options().header("header\n\nsecond line\n");
+      config.set("key", "value");
+      config.setDocs("key", "documentation");
+    });
+  }
+
+  @Test
+  public void foldedStrings() {
+    String words = "word ".repeat(30).trim();
+    assertSameContents((config) -> {
+      config.set("long", words);
+      config.set("section.nested", words);
+      config.set("list", List.of(words, "a".repeat(100)));
+      config.set("unbroken", "a".repeat(100));
+    });
+    // the dumper folds plain scalars exceeding a line width of 80 columns
+    for (int length = 74; length <= 84; ++length) {
+      String string = "a".repeat(length - 2) + " b";
+      assertSameContents((config) -> config.set("k", string));
+      assertSameContents((config) -> config.set("section.k", string));
+      assertSameContents((config) -> config.set("list", List.of(string)));
+    }
+  }
+
+  @Test
+  public void unsupportedValues() {
+    assertSameContents((config) -> {
+      config.set("first", "plain");
+      config.set("quoted", "needs: quotes");
+      config.set("multiline", "a\nb");
+      config.set("yes", "reserved");
+      config.set("exponent", 1e20);
+    });
+  }
+
+  @Test
+  public void indent() {
+    assertSameContents((config) -> {
+      config.options().indent(4);
+      config.set("a.b.c", "value");
+      config.set("a.list", List.of(1, 2));
+      config.setDocs("a.b", "indented documentation");
+    });
+  }
+
+}
@@ -0,0 +1,74 @@
+import io.github.aparx.bufig.defaults.yaml.YamlConfig;
+import io.github.aparx.bufig.defaults.yaml.YamlProcessors;
+import io.github.aparx.bufig.defaults.yaml.results.YamlCommentLine;
+import io.github.aparx.bufig.defaults.yaml.results.YamlMappingLine;
+import io.github.aparx.bufig.processors.results.ScannedLine;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * @author aparx (Vinzent Z.)
+ * @version 2023-12-02 12:15
+ * @since 1.0
+ */
+public class TestYamlLineScanner {
+
+  private static final String[] LINES = {
+      "#", "# ", "#  ", "#a", "# a", "  # nested", "   # odd", "\t# tab",
+      "a  b: c", "-a: b", "- a", "key :", "key:", "key: ", "key:  value", "key:\tvalue",
+      "a b c: d e", "_key: v", "ke-y: v", "k\u00e9y: v", "1: one", "key: 'quoted: value'",
+      "  child: value", "    deep:", "key: # value", "a:b", ":", "", " ", "  "
+  };
+
+  private static List<ScannedLine> scan(String content, boolean regex) {
+    YamlConfig caller = new YamlConfig("test", new File("test.yml"));
+    return regex
+        ? YamlProcessors.newScanner().scan(caller, content).collectProcess()
+        : YamlProcessors.newLineScanner().scan(caller, content).collectProcess();
+  }
+
+  private static void assertSameTokens(List<ScannedLine> expected, List<ScannedLine> actual) {
+    Assertions.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); ++i) {
+      Assertions.assertEquals(expected.get(i).getClass(), actual.get(i).getClass(),
+          expected.get(i).getLine());
+      Assertions.assertEquals(expected.get(i), actual.get(i), expected.get(i).getLine());
+    }
+  }
+
+  @Test
+  public void matchesRegexScanner() {
+    for (String line : LINES)
+      assertSameTokens(scan(line, true), scan(line, false));
+    String content = String.join("\n", LINES);
+    assertSameTokens(scan(content, true), scan(content, false));
+  }
+
+  @Test
+  public void matchesRegexScannerStreaming() {
+    String content = String.join("\r\n", LINES);
+    YamlConfig caller = new YamlConfig("test", new File("test.yml"));
+    assertSameTokens(scan(content, true), YamlProcessors.newLineScanner()
+        .scan(caller, new StringReader(content)).collectProcess());
+  }
+
+  @Test
+  public void tokenize() {
+    Assertions.assertEquals(ScannedLine.class, scan("#", false).get(0).getClass());
+    Assertions.assertEquals(ScannedLine.class, scan("-a: b", false).get(0).getClass());
+    Assertions.assertEquals(ScannedLine.class, scan("key :", false).get(0).getClass());
+    YamlCommentLine comment = (YamlCommentLine) scan("  # nested", false).get(0);
+    Assertions.assertEquals(1, comment.getNestDepth());
+    Assertions.assertEquals("nested", comment.getContent());
+    YamlMappingLine mapping = (YamlMappingLine) scan("a  b: c", false).get(0);
+    Assertions.assertEquals(0, mapping.getNestDepth());
+    Assertions.assertEquals("a  b", mapping.getKey());
+    Assertions.assertEquals("c", mapping.getValue());
+    Assertions.assertNull(((YamlMappingLine) scan("key:", false).get(0)).getValue());
+  }
+
+}